@@ -2,12 +2,16 @@ package com.example.configclient.config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 public class AppConfig {
     private static final Properties properties = new Properties();
+    private static volatile String defaultClientId;
     
     static {
         try (InputStream input = AppConfig.class.getClassLoader()
@@ -18,6 +22,10 @@ public class AppConfig {
         } catch (IOException e) {
             throw new RuntimeException("Failed to load application properties", e);
         }
+        // -Dconfig.* system properties override the bundled file
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("config."))
+                .forEach(name -> properties.setProperty(name, System.getProperty(name)));
     }
 
     public static String getConfigServerUrl() {
@@ -49,4 +57,45 @@ public class AppConfig {
     public static boolean isAutoStartEnabled() {
         return Boolean.parseBoolean(properties.getProperty("config.client.autostart", "true"));
     }
+
+    public static boolean isLocalFeatureEvaluationEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("config.features.local-evaluation", "true"));
+    }
+
+    /**
+     * Property prefixes this client reads; when set, only those subtrees are
+     * requested from the server. Empty means everything.
+     */
+    public static List<String> getPropertyPrefixes() {
+        String prefixes = properties.getProperty("config.client.prefixes", "");
+        return Arrays.stream(prefixes.split(","))
+                .map(String::trim)
+                .filter(prefix -> !prefix.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    public static boolean isDeltaRefreshEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("config.refresh.delta", "true"));
+    }
+
+    /**
+     * Identifies this instance to the config server's admission control;
+     * defaults to {@code <hostname>-<pid>}.
+     */
+    public static String getClientId() {
+        String clientId = properties.getProperty("config.client.id");
+        if (clientId != null && !clientId.isBlank()) {
+            return clientId;
+        }
+        if (defaultClientId == null) {
+            String host;
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                host = "unknown";
+            }
+            defaultClientId = host + "-" + ProcessHandle.current().pid();
+        }
+        return defaultClientId;
+    }
 }
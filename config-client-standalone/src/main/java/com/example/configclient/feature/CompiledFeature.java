@@ -0,0 +1,239 @@
+package com.example.configclient.feature;
+
+import com.example.configclient.model.FeatureDefinition;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A feature definition turned into predicates. Supports the standard Unleash
+ * strategies and the string/list constraint operators; anything else evaluates
+ * to disabled, which is also what the Unleash SDK does for unknown strategies.
+ */
+final class CompiledFeature {
+    private static final Predicate<FeatureContext> ALWAYS = context -> true;
+    private static final Predicate<FeatureContext> NEVER = context -> false;
+
+    private final boolean enabled;
+    private final Predicate<FeatureContext>[] strategies;
+
+    private CompiledFeature(boolean enabled, Predicate<FeatureContext>[] strategies) {
+        this.enabled = enabled;
+        this.strategies = strategies;
+    }
+
+    @SuppressWarnings("unchecked")
+    static CompiledFeature compile(FeatureDefinition definition) {
+        List<FeatureDefinition.Strategy> strategies = definition.getStrategies() != null
+                ? definition.getStrategies() : List.of();
+        Predicate<FeatureContext>[] compiled = strategies.stream()
+                .map(CompiledFeature::compileStrategy)
+                .toArray(Predicate[]::new);
+        return new CompiledFeature(definition.isEnabled(), compiled);
+    }
+
+    boolean isEnabled(FeatureContext context) {
+        if (!enabled) {
+            return false;
+        }
+        if (strategies.length == 0) {
+            return true;
+        }
+        for (Predicate<FeatureContext> strategy : strategies) {
+            if (strategy.test(context)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Predicate<FeatureContext> compileStrategy(FeatureDefinition.Strategy strategy) {
+        // Segment constraints are inlined by the server; ids it left behind cannot be
+        // resolved here, and Unleash treats an unknown segment as not matching
+        if (strategy.getSegments() != null && !strategy.getSegments().isEmpty()) {
+            return NEVER;
+        }
+        Map<String, String> parameters = strategy.getParameters() != null ? strategy.getParameters() : Map.of();
+        Predicate<FeatureContext> matcher = compileMatcher(strategy.getName(), parameters);
+
+        List<FeatureDefinition.Constraint> constraints = strategy.getConstraints();
+        if (constraints == null || constraints.isEmpty()) {
+            return matcher;
+        }
+        Predicate<FeatureContext> combined = matcher;
+        for (FeatureDefinition.Constraint constraint : constraints) {
+            combined = combined.and(compileConstraint(constraint));
+        }
+        return combined;
+    }
+
+    private static Predicate<FeatureContext> compileMatcher(String strategyName, Map<String, String> parameters) {
+        if (strategyName == null) {
+            return NEVER;
+        }
+        switch (strategyName) {
+            case "default":
+                return ALWAYS;
+            case "userWithId": {
+                Set<String> userIds = splitList(parameters.get("userIds"));
+                return context -> context.getUserId() != null && userIds.contains(context.getUserId());
+            }
+            case "remoteAddress": {
+                Set<String> addresses = splitList(parameters.get("IPs"));
+                return context -> context.getRemoteAddress() != null && addresses.contains(context.getRemoteAddress());
+            }
+            case "flexibleRollout": {
+                int rollout = parsePercentage(parameters.get("rollout"));
+                String groupId = parameters.getOrDefault("groupId", "");
+                String stickiness = parameters.getOrDefault("stickiness", "default");
+                return context -> {
+                    String stickyId = stickyId(stickiness, context);
+                    return stickyId != null && rollout > 0 && normalizedValue(stickyId, groupId) <= rollout;
+                };
+            }
+            case "gradualRolloutUserId": {
+                int percentage = parsePercentage(parameters.get("percentage"));
+                String groupId = parameters.getOrDefault("groupId", "");
+                return context -> context.getUserId() != null && percentage > 0
+                        && normalizedValue(context.getUserId(), groupId) <= percentage;
+            }
+            case "gradualRolloutSessionId": {
+                int percentage = parsePercentage(parameters.get("percentage"));
+                String groupId = parameters.getOrDefault("groupId", "");
+                return context -> context.getSessionId() != null && percentage > 0
+                        && normalizedValue(context.getSessionId(), groupId) <= percentage;
+            }
+            case "gradualRolloutRandom": {
+                int percentage = parsePercentage(parameters.get("percentage"));
+                return context -> percentage > 0 && randomValue() <= percentage;
+            }
+            default:
+                return NEVER;
+        }
+    }
+
+    private static Predicate<FeatureContext> compileConstraint(FeatureDefinition.Constraint constraint) {
+        String contextName = constraint.getContextName();
+        String operator = constraint.getOperator() != null ? constraint.getOperator() : "IN";
+        boolean caseInsensitive = constraint.isCaseInsensitive();
+        List<String> values = constraint.getValues() != null ? constraint.getValues() : List.of();
+        if (values.isEmpty() && constraint.getValue() != null) {
+            values = List.of(constraint.getValue());
+        }
+        List<String> normalized = caseInsensitive
+                ? values.stream().map(v -> v.toLowerCase(Locale.ROOT)).collect(Collectors.toList())
+                : values;
+        Set<String> valueSet = Set.copyOf(normalized);
+        Predicate<FeatureContext> in = context -> {
+            String value = context.get(contextName);
+            return value != null && valueSet.contains(caseInsensitive ? value.toLowerCase(Locale.ROOT) : value);
+        };
+
+        Predicate<FeatureContext> matcher;
+        switch (operator) {
+            case "IN":
+                matcher = in;
+                break;
+            case "NOT_IN":
+                matcher = in.negate();
+                break;
+            case "STR_CONTAINS":
+                matcher = stringMatcher(contextName, caseInsensitive, normalized, String::contains);
+                break;
+            case "STR_STARTS_WITH":
+                // When ignoring case, the SDK checks whether the constraint value starts with
+                // the context value rather than the other way round; the server evaluates with
+                // the SDK, so the client has to agree with it
+                matcher = stringMatcher(contextName, caseInsensitive, normalized, caseInsensitive
+                        ? (candidate, expected) -> expected.startsWith(candidate)
+                        : String::startsWith);
+                break;
+            case "STR_ENDS_WITH":
+                matcher = stringMatcher(contextName, caseInsensitive, normalized, String::endsWith);
+                break;
+            default:
+                // Unleash fails an unsupported operator whether or not it is inverted
+                return NEVER;
+        }
+        return constraint.isInverted() ? matcher.negate() : matcher;
+    }
+
+    private static Predicate<FeatureContext> stringMatcher(String contextName, boolean caseInsensitive,
+                                                           List<String> values,
+                                                           BiPredicate<String, String> test) {
+        return context -> {
+            String value = context.get(contextName);
+            if (value == null) {
+                return false;
+            }
+            String candidate = caseInsensitive ? value.toLowerCase(Locale.ROOT) : value;
+            for (String expected : values) {
+                if (test.test(candidate, expected)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static String stickyId(String stickiness, FeatureContext context) {
+        switch (stickiness) {
+            case "default":
+                if (context.getUserId() != null) {
+                    return context.getUserId();
+                }
+                if (context.getSessionId() != null) {
+                    return context.getSessionId();
+                }
+                return String.valueOf(randomValue());
+            case "random":
+                return String.valueOf(randomValue());
+            default:
+                return context.get(stickiness);
+        }
+    }
+
+    // Same bucketing as the Unleash SDKs: murmur3 (x86, 32 bit, seed 0) of "groupId:identifier",
+    // taken as an unsigned number
+    private static int normalizedValue(String identifier, String groupId) {
+        int hash = Hashing.murmur3_32_fixed()
+                .hashString(groupId + ":" + identifier, StandardCharsets.UTF_8)
+                .asInt();
+        return (int) (Integer.toUnsignedLong(hash) % 100) + 1;
+    }
+
+    private static int randomValue() {
+        return ThreadLocalRandom.current().nextInt(1, 101);
+    }
+
+    // Like the SDK, anything but plain digits counts as 0
+    private static int parsePercentage(String value) {
+        if (value == null || value.isEmpty() || !value.chars().allMatch(Character::isDigit)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static Set<String> splitList(String value) {
+        if (value == null || value.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
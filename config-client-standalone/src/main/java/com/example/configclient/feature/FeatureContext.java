@@ -0,0 +1,64 @@
+package com.example.configclient.feature;
+
+import java.util.Map;
+
+/**
+ * Evaluation context for local feature flag checks. Mirrors the fields of an
+ * Unleash context that the supported strategies and constraints look at.
+ */
+public final class FeatureContext {
+    private static final FeatureContext EMPTY = new FeatureContext(null, null, null, Map.of());
+
+    private final String userId;
+    private final String sessionId;
+    private final String remoteAddress;
+    private final Map<String, String> properties;
+
+    public FeatureContext(String userId, String sessionId, String remoteAddress, Map<String, String> properties) {
+        this.userId = userId;
+        this.sessionId = sessionId;
+        this.remoteAddress = remoteAddress;
+        this.properties = properties != null ? Map.copyOf(properties) : Map.of();
+    }
+
+    public static FeatureContext empty() {
+        return EMPTY;
+    }
+
+    public static FeatureContext forUser(String userId) {
+        return new FeatureContext(userId, null, null, Map.of());
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Value of a context field by its Unleash name; anything that is not a
+     * built-in field is looked up in the custom properties.
+     */
+    public String get(String contextName) {
+        switch (contextName) {
+            case "userId":
+                return userId;
+            case "sessionId":
+                return sessionId;
+            case "remoteAddress":
+                return remoteAddress;
+            default:
+                return properties.get(contextName);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.configclient.feature;
+
+import com.example.configclient.model.FeatureDefinition;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable set of compiled feature flags for one application-profile pair.
+ * Definitions are parsed once when the snapshot is built, so evaluating a flag
+ * is a map lookup plus a walk over that flag's (few) strategies.
+ */
+public final class FeatureSnapshot {
+    private static final FeatureSnapshot EMPTY = new FeatureSnapshot(Map.of());
+
+    private final Map<String, CompiledFeature> features;
+    private final LocalDateTime lastUpdated;
+
+    private FeatureSnapshot(Map<String, CompiledFeature> features) {
+        this.features = features;
+        this.lastUpdated = LocalDateTime.now();
+    }
+
+    public static FeatureSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static FeatureSnapshot compile(List<FeatureDefinition> definitions) {
+        Map<String, CompiledFeature> features = new HashMap<>();
+        for (FeatureDefinition definition : definitions) {
+            if (definition.getName() != null) {
+                features.put(definition.getName(), CompiledFeature.compile(definition));
+            }
+        }
+        return new FeatureSnapshot(Map.copyOf(features));
+    }
+
+    /**
+     * Evaluates a flag against the context. Unknown flags are disabled.
+     */
+    public boolean isEnabled(String featureName, FeatureContext context) {
+        CompiledFeature feature = features.get(featureName);
+        return feature != null && feature.isEnabled(context != null ? context : FeatureContext.empty());
+    }
+
+    public boolean hasFeature(String featureName) {
+        return features.containsKey(featureName);
+    }
+
+    public Set<String> getFeatureNames() {
+        return features.keySet();
+    }
+
+    public int size() {
+        return features.size();
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+}
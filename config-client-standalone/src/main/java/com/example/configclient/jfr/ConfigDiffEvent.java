@@ -0,0 +1,42 @@
+package com.example.configclient.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Comparison of a freshly fetched configuration with the one in memory.
+ */
+@Name("com.example.configclient.ConfigDiff")
+@Label("Config Diff")
+@Category({"Config Client"})
+@Description("Change detection between the in-memory and the fetched configuration")
+@StackTrace(false)
+public class ConfigDiffEvent extends jdk.jfr.Event {
+
+    @Label("Application")
+    public String application;
+
+    @Label("Profile")
+    public String profile;
+
+    @Label("Previous Size")
+    public int previousSize;
+
+    @Label("New Size")
+    public int newSize;
+
+    @Label("Added")
+    public int added;
+
+    @Label("Modified")
+    public int modified;
+
+    @Label("Removed")
+    public int removed;
+
+    @Label("Changed")
+    public boolean changed;
+}
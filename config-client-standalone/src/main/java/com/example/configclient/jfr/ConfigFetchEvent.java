@@ -0,0 +1,35 @@
+package com.example.configclient.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A single request to the config server made during a refresh.
+ */
+@Name("com.example.configclient.ConfigFetch")
+@Label("Config Fetch")
+@Category({"Config Client"})
+@Description("Fetch of a configuration, delta or feature definitions from the config server")
+@StackTrace(false)
+public class ConfigFetchEvent extends jdk.jfr.Event {
+
+    @Label("Application")
+    public String application;
+
+    @Label("Profile")
+    public String profile;
+
+    @Label("Kind")
+    @Description("config, delta or features")
+    public String kind;
+
+    @Label("Size")
+    @Description("Properties or flags received, -1 when nothing was received")
+    public int size;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,30 @@
+package com.example.configclient.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One pass of the scheduler over every configured application and profile.
+ */
+@Name("com.example.configclient.RefreshCycle")
+@Label("Config Refresh Cycle")
+@Category({"Config Client"})
+@Description("One scheduled refresh of all configurations")
+@StackTrace(false)
+public class RefreshCycleEvent extends jdk.jfr.Event {
+
+    @Label("Configurations")
+    public int configurations;
+
+    @Label("Succeeded")
+    public int succeeded;
+
+    @Label("Changed")
+    public int changed;
+
+    @Label("Outcome")
+    public String outcome;
+}
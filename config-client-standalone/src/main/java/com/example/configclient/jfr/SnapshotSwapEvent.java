@@ -0,0 +1,35 @@
+package com.example.configclient.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Replacement of the configuration or feature snapshot held for a key.
+ */
+@Name("com.example.configclient.SnapshotSwap")
+@Label("Config Snapshot Swap")
+@Category({"Config Client"})
+@Description("A new configuration or feature snapshot was published in memory")
+@StackTrace(false)
+public class SnapshotSwapEvent extends jdk.jfr.Event {
+
+    @Label("Key")
+    public String key;
+
+    @Label("Kind")
+    @Description("config, delta or features")
+    public String kind;
+
+    @Label("Version")
+    public String version;
+
+    @Label("Previous Size")
+    @Description("-1 when nothing was held before")
+    public int previousSize;
+
+    @Label("New Size")
+    public int newSize;
+}
@@ -0,0 +1,98 @@
+package com.example.configclient.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes between two configuration versions, as served by the config server's
+ * {@code /{application}/{profile}/delta?since=<version>} endpoint. When the server
+ * no longer has the base version, {@code full} is set and {@code properties}
+ * holds the complete property map instead.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ConfigDelta {
+    private String since;
+    private String version;
+    private boolean full;
+    private Map<String, Object> properties;
+    private Map<String, Object> added = new LinkedHashMap<>();
+    private Map<String, Object> modified = new LinkedHashMap<>();
+    private List<String> removed = new ArrayList<>();
+
+    // Getters and Setters
+    public String getSince() {
+        return since;
+    }
+
+    public void setSince(String since) {
+        this.since = since;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(Map<String, Object> properties) {
+        this.properties = properties;
+    }
+
+    public Map<String, Object> getAdded() {
+        return added;
+    }
+
+    public void setAdded(Map<String, Object> added) {
+        this.added = added;
+    }
+
+    public Map<String, Object> getModified() {
+        return modified;
+    }
+
+    public void setModified(Map<String, Object> modified) {
+        this.modified = modified;
+    }
+
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<String> removed) {
+        this.removed = removed;
+    }
+
+    public boolean isEmpty() {
+        return !full && added.isEmpty() && modified.isEmpty() && removed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigDelta{" +
+                "since='" + since + '\'' +
+                ", version='" + version + '\'' +
+                ", full=" + full +
+                ", added=" + added.keySet() +
+                ", modified=" + modified.keySet() +
+                ", removed=" + removed +
+                '}';
+    }
+}
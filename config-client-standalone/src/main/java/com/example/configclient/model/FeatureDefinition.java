@@ -0,0 +1,176 @@
+package com.example.configclient.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact feature flag definition as served by the config server's
+ * {@code /{application}/{profile}/features/definitions} endpoint.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FeatureDefinition {
+    private String name;
+    private boolean enabled;
+    private List<Strategy> strategies = new ArrayList<>();
+
+    public FeatureDefinition() {
+    }
+
+    public FeatureDefinition(String name, boolean enabled, List<Strategy> strategies) {
+        this.name = name;
+        this.enabled = enabled;
+        this.strategies = strategies;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Strategy> getStrategies() {
+        return strategies;
+    }
+
+    public void setStrategies(List<Strategy> strategies) {
+        this.strategies = strategies;
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureDefinition{" +
+                "name='" + name + '\'' +
+                ", enabled=" + enabled +
+                ", strategies=" + strategies +
+                '}';
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Strategy {
+        private String name;
+        private Map<String, String> parameters = new HashMap<>();
+        private List<Constraint> constraints = new ArrayList<>();
+        private List<Integer> segments = new ArrayList<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Map<String, String> getParameters() {
+            return parameters;
+        }
+
+        public void setParameters(Map<String, String> parameters) {
+            this.parameters = parameters;
+        }
+
+        public List<Constraint> getConstraints() {
+            return constraints;
+        }
+
+        public void setConstraints(List<Constraint> constraints) {
+            this.constraints = constraints;
+        }
+
+        /**
+         * Ids of Unleash segments the strategy refers to. The server inlines their
+         * constraints, so this is only non-empty if it could not.
+         */
+        public List<Integer> getSegments() {
+            return segments;
+        }
+
+        public void setSegments(List<Integer> segments) {
+            this.segments = segments;
+        }
+
+        @Override
+        public String toString() {
+            return "Strategy{name='" + name + "', parameters=" + parameters + ", constraints=" + constraints +
+                    ", segments=" + segments + '}';
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Constraint {
+        private String contextName;
+        private String operator;
+        private List<String> values = new ArrayList<>();
+        private String value;
+        private boolean inverted;
+        private boolean caseInsensitive;
+
+        public String getContextName() {
+            return contextName;
+        }
+
+        public void setContextName(String contextName) {
+            this.contextName = contextName;
+        }
+
+        public String getOperator() {
+            return operator;
+        }
+
+        public void setOperator(String operator) {
+            this.operator = operator;
+        }
+
+        public List<String> getValues() {
+            return values;
+        }
+
+        public void setValues(List<String> values) {
+            this.values = values;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        public boolean isInverted() {
+            return inverted;
+        }
+
+        public void setInverted(boolean inverted) {
+            this.inverted = inverted;
+        }
+
+        public boolean isCaseInsensitive() {
+            return caseInsensitive;
+        }
+
+        public void setCaseInsensitive(boolean caseInsensitive) {
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        @Override
+        public String toString() {
+            return "Constraint{contextName='" + contextName + "', operator='" + operator +
+                    "', values=" + values + ", inverted=" + inverted + '}';
+        }
+    }
+}
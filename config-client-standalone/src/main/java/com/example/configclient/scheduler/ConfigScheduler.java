@@ -1,7 +1,13 @@
 package com.example.configclient.scheduler;
 
 import com.example.configclient.config.AppConfig;
+import com.example.configclient.feature.FeatureSnapshot;
+import com.example.configclient.jfr.ConfigDiffEvent;
+import com.example.configclient.jfr.ConfigFetchEvent;
+import com.example.configclient.jfr.RefreshCycleEvent;
+import com.example.configclient.model.ConfigDelta;
 import com.example.configclient.model.Configuration;
+import com.example.configclient.model.FeatureDefinition;
 import com.example.configclient.service.ConfigService;
 import com.google.common.collect.MapDifference;
 import com.google.common.collect.Maps;
@@ -13,6 +19,9 @@ import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 public class ConfigScheduler {
     private static final Logger logger = LoggerFactory.getLogger(ConfigScheduler.class);
@@ -25,6 +34,10 @@ public class ConfigScheduler {
     private ScheduledFuture<?> refreshTask;
     private ScheduledFuture<?> healthCheckTask;
     private volatile boolean running = false;
+    
+    // Not a monitor: start() runs the initial fetch while holding it, which
+    // would pin the carrier when clients run on virtual threads
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
 
     public ConfigScheduler(ConfigService configService, ScheduledExecutorService scheduler) {
         this.configService = configService;
@@ -33,57 +46,67 @@ public class ConfigScheduler {
         this.profiles = AppConfig.getProfiles();
     }
 
-    public synchronized void start() {
-        if (running) {
-            logger.debug("ConfigScheduler is already running");
-            return;
-        }
-        
-        // Initial configuration load
-        logger.info("Performing initial configuration load...");
-        refreshConfigurations();
-        
-        // Schedule periodic refresh
-        long refreshInterval = AppConfig.getRefreshInterval();
-        refreshTask = scheduler.scheduleAtFixedRate(
-            this::refreshConfigurations,
-            refreshInterval,
-            refreshInterval,
-            TimeUnit.MILLISECONDS
-        );
-        
-        // Schedule health checks
-        long healthCheckInterval = AppConfig.getHealthCheckInterval();
-        healthCheckTask = scheduler.scheduleAtFixedRate(
-            this::performHealthCheck,
-            healthCheckInterval,
-            healthCheckInterval,
-            TimeUnit.MILLISECONDS
-        );
-        
-        running = true;
-        logger.info("Configuration scheduler started - refresh interval: {}ms, health check interval: {}ms",
-                   refreshInterval, healthCheckInterval);
+    public void start() {
+        lifecycleLock.lock();
+        try {
+            if (running) {
+                logger.debug("ConfigScheduler is already running");
+                return;
+            }
+        
+            // Initial configuration load
+            logger.info("Performing initial configuration load...");
+            refreshConfigurations();
+        
+            // Schedule periodic refresh
+            long refreshInterval = AppConfig.getRefreshInterval();
+            refreshTask = scheduler.scheduleAtFixedRate(
+                this::refreshConfigurations,
+                refreshInterval,
+                refreshInterval,
+                TimeUnit.MILLISECONDS
+            );
+        
+            // Schedule health checks
+            long healthCheckInterval = AppConfig.getHealthCheckInterval();
+            healthCheckTask = scheduler.scheduleAtFixedRate(
+                this::performHealthCheck,
+                healthCheckInterval,
+                healthCheckInterval,
+                TimeUnit.MILLISECONDS
+            );
+        
+            running = true;
+            logger.info("Configuration scheduler started - refresh interval: {}ms, health check interval: {}ms",
+                       refreshInterval, healthCheckInterval);
+        } finally {
+            lifecycleLock.unlock();
+        }
     }
 
-    public synchronized void stop() {
-        if (!running) {
-            logger.debug("ConfigScheduler is not running");
-            return;
-        }
+    public void stop() {
+        lifecycleLock.lock();
+        try {
+            if (!running) {
+                logger.debug("ConfigScheduler is not running");
+                return;
+            }
         
-        logger.info("Stopping configuration scheduler...");
+            logger.info("Stopping configuration scheduler...");
         
-        if (refreshTask != null) {
-            refreshTask.cancel(false);
-        }
+            if (refreshTask != null) {
+                refreshTask.cancel(false);
+            }
         
-        if (healthCheckTask != null) {
-            healthCheckTask.cancel(false);
-        }
+            if (healthCheckTask != null) {
+                healthCheckTask.cancel(false);
+            }
         
-        running = false;
-        logger.info("Configuration scheduler stopped");
+            running = false;
+            logger.info("Configuration scheduler stopped");
+        } finally {
+            lifecycleLock.unlock();
+        }
     }
     
     public boolean isRunning() {
@@ -93,6 +116,9 @@ public class ConfigScheduler {
     private void refreshConfigurations() {
         logger.debug("Starting scheduled configuration refresh...");
         
+        RefreshCycleEvent cycle = new RefreshCycleEvent();
+        cycle.begin();
+        
         int successCount = 0;
         int totalCount = 0;
         int changedCount = 0;
@@ -102,12 +128,27 @@ public class ConfigScheduler {
                 totalCount++;
                 try {
                     String cacheKey = appName + "-" + profile;
-                    Configuration newConfig = configService.fetchConfigurationFromServer(appName, profile);
+                    
+                    Boolean deltaChanged = refreshWithDelta(appName, profile, cacheKey);
+                    if (deltaChanged != null) {
+                        if (deltaChanged) {
+                            changedCount++;
+                        }
+                        successCount++;
+                        if (AppConfig.isLocalFeatureEvaluationEnabled()) {
+                            refreshFeatures(appName, profile, cacheKey);
+                        }
+                        continue;
+                    }
+                    
+                    Configuration newConfig = fetch("config", appName, profile,
+                            () -> configService.fetchConfigurationFromServer(appName, profile),
+                            ConfigScheduler::propertyCount);
                     
                     if (newConfig != null) {
                         Configuration existingConfig = configService.getConfigFromMemory(cacheKey);
                         
-                        ConfigChangeResult changeResult = isConfigurationChanged(existingConfig, newConfig);
+                        ConfigChangeResult changeResult = isConfigurationChanged(appName, profile, existingConfig, newConfig);
                         
                         if (changeResult.hasChanged()) {
                             configService.updateConfigInMemory(cacheKey, newConfig);
@@ -123,6 +164,10 @@ public class ConfigScheduler {
                             logger.debug("No changes detected for {}-{}", appName, profile);
                         }
                         successCount++;
+                        
+                        if (AppConfig.isLocalFeatureEvaluationEnabled()) {
+                            refreshFeatures(appName, profile, cacheKey);
+                        }
                     } else {
                         logger.warn("Failed to fetch configuration for {}-{}", appName, profile);
                     }
@@ -133,10 +178,102 @@ public class ConfigScheduler {
             }
         }
         
+        cycle.end();
+        if (cycle.shouldCommit()) {
+            cycle.configurations = totalCount;
+            cycle.succeeded = successCount;
+            cycle.changed = changedCount;
+            cycle.outcome = successCount == totalCount ? "success" : successCount > 0 ? "partial" : "failed";
+            cycle.commit();
+        }
+        
         logger.info("Configuration refresh completed - Success: {}/{}, Changed: {}", 
                    successCount, totalCount, changedCount);
     }
 
+    /**
+     * Refreshes a configuration that is already in memory through the delta
+     * endpoint. Returns whether anything changed, or {@code null} when the full
+     * configuration has to be fetched instead.
+     */
+    private Boolean refreshWithDelta(String appName, String profile, String cacheKey) {
+        Configuration existingConfig = configService.getConfigFromMemory(cacheKey);
+        if (!AppConfig.isDeltaRefreshEnabled() || existingConfig == null || existingConfig.getVersion() == null
+                || existingConfig.getProperties() == null) {
+            return null;
+        }
+        
+        ConfigDelta delta = fetch("delta", appName, profile,
+                () -> configService.fetchDeltaFromServer(appName, profile, existingConfig.getVersion()),
+                ConfigScheduler::deltaSize);
+        if (delta == null) {
+            return null;
+        }
+        if (delta.isEmpty()) {
+            logger.debug("No changes detected for {}-{}", appName, profile);
+            return false;
+        }
+        if (configService.applyDelta(cacheKey, delta) == null) {
+            return null;
+        }
+        
+        if (delta.isFull()) {
+            logger.info("Configuration refreshed for {}-{}: version {} no longer known to the server, full reload",
+                       appName, profile, existingConfig.getVersion());
+        } else {
+            logger.info("Configuration refreshed for {}-{} with changes: Added: {}; Modified: {}; Removed: {}",
+                       appName, profile, delta.getAdded().keySet(), delta.getModified().keySet(), delta.getRemoved());
+        }
+        return true;
+    }
+
+    private void refreshFeatures(String appName, String profile, String cacheKey) {
+        List<FeatureDefinition> definitions = fetch("features", appName, profile,
+                () -> configService.fetchFeatureDefinitionsFromServer(appName, profile), List::size);
+        if (definitions != null) {
+            configService.updateFeaturesInMemory(cacheKey, FeatureSnapshot.compile(definitions));
+        } else {
+            logger.debug("Keeping previous feature snapshot for {}-{}", appName, profile);
+        }
+    }
+
+    /**
+     * Runs one request to the config server inside a {@link ConfigFetchEvent}.
+     * The event fields are only filled in when a recording wants the event.
+     */
+    private static <T> T fetch(String kind, String appName, String profile, Supplier<T> request, ToIntFunction<T> size) {
+        ConfigFetchEvent event = new ConfigFetchEvent();
+        event.begin();
+        T result = null;
+        String outcome = "error";
+        try {
+            result = request.get();
+            outcome = result != null ? "success" : "failed";
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.application = appName;
+                event.profile = profile;
+                event.kind = kind;
+                event.size = result != null ? size.applyAsInt(result) : -1;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    private static int propertyCount(Configuration configuration) {
+        return configuration.getProperties() != null ? configuration.getProperties().size() : 0;
+    }
+
+    private static int deltaSize(ConfigDelta delta) {
+        if (delta.isFull()) {
+            return delta.getProperties() != null ? delta.getProperties().size() : 0;
+        }
+        return delta.getAdded().size() + delta.getModified().size() + delta.getRemoved().size();
+    }
+
     private void performHealthCheck() {
         logger.debug("Performing configuration health check...");
         
@@ -151,7 +288,25 @@ public class ConfigScheduler {
         }
     }
 
-    private ConfigChangeResult isConfigurationChanged(Configuration existing, Configuration newConfig) {
+    private ConfigChangeResult isConfigurationChanged(String appName, String profile,
+                                                      Configuration existing, Configuration newConfig) {
+        ConfigDiffEvent event = new ConfigDiffEvent();
+        event.begin();
+        ConfigChangeResult result = compareConfigurations(existing, newConfig, event);
+        event.end();
+        if (event.shouldCommit()) {
+            event.application = appName;
+            event.profile = profile;
+            event.previousSize = existing != null ? propertyCount(existing) : -1;
+            event.newSize = newConfig != null ? propertyCount(newConfig) : -1;
+            event.changed = result.hasChanged();
+            event.commit();
+        }
+        return result;
+    }
+
+    private ConfigChangeResult compareConfigurations(Configuration existing, Configuration newConfig,
+                                                     ConfigDiffEvent event) {
         if (existing == null && newConfig == null) {
             return new ConfigChangeResult(false, null);
         }
@@ -171,6 +326,10 @@ public class ConfigScheduler {
         if (existing.getProperties() != null && newConfig.getProperties() != null) {
             MapDifference<String, Object> diff = Maps.difference(existing.getProperties(), newConfig.getProperties());
             
+            event.added = diff.entriesOnlyOnRight().size();
+            event.modified = diff.entriesDiffering().size();
+            event.removed = diff.entriesOnlyOnLeft().size();
+            
             if (!diff.areEqual()) {
                 StringBuilder changeDesc = new StringBuilder();
                 
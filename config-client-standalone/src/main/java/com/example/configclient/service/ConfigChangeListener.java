@@ -0,0 +1,17 @@
+package com.example.configclient.service;
+
+import com.example.configclient.model.Configuration;
+
+/**
+ * Notified after a configuration snapshot has been swapped in memory.
+ */
+@FunctionalInterface
+public interface ConfigChangeListener {
+
+    /**
+     * Called on the thread that swapped the snapshot. {@code previous} is
+     * {@code null} for the first load of the key, {@code current} when the key
+     * was cleared.
+     */
+    void configurationChanged(String key, Configuration previous, Configuration current);
+}
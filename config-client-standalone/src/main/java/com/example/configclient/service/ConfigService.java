@@ -1,53 +1,82 @@
 package com.example.configclient.service;
 
 import com.example.configclient.config.AppConfig;
+import com.example.configclient.feature.FeatureSnapshot;
+import com.example.configclient.jfr.SnapshotSwapEvent;
+import com.example.configclient.model.ConfigDelta;
 import com.example.configclient.model.Configuration;
+import com.example.configclient.model.FeatureDefinition;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ConfigService {
     private static final Logger logger = LoggerFactory.getLogger(ConfigService.class);
     
+    private static final String CLIENT_ID_HEADER = "X-Client-Id";
+    private static final String FETCH_TYPE_HEADER = "X-Config-Fetch";
+    private static final String FETCH_BOOTSTRAP = "bootstrap";
+    private static final String FETCH_REFRESH = "refresh";
+    
     private final HttpClient httpClient;
+    private final String clientId;
     private final ObjectMapper objectMapper;
     private final Map<String, Configuration> configCache;
+    private final Map<String, FeatureSnapshot> featureCache;
+    private final List<ConfigChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     public ConfigService() {
-        this.httpClient = HttpClient.newBuilder()
+        this(HttpClient.newBuilder()
                 .connectTimeout(Duration.ofMillis(AppConfig.getConfigServerTimeout()))
-                .build();
+                .build(), AppConfig.getClientId());
+    }
+
+    /**
+     * For hosting many clients in one JVM (e.g. fleet simulations): they share
+     * one {@link HttpClient} and each identifies itself with its own id.
+     */
+    public ConfigService(HttpClient httpClient, String clientId) {
+        this.httpClient = httpClient;
+        this.clientId = clientId;
         this.objectMapper = new ObjectMapper();
         this.configCache = new ConcurrentHashMap<>();
+        this.featureCache = new ConcurrentHashMap<>();
     }
 
     public Configuration fetchConfigurationFromServer(String applicationName, String profile) {
         try {
-            String url = String.format("%s/%s/%s", AppConfig.getConfigServerUrl(), applicationName, profile);
+            String url = String.format("%s/%s/%s", AppConfig.getConfigServerUrl(), applicationName, profile)
+                    + projectionQuery('?');
             logger.info("Fetching configuration from: {}", url);
             
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofMillis(AppConfig.getConfigServerTimeout()))
-                    .GET()
-                    .build();
+            HttpRequest request = newRequest(url, fetchType(configCache, applicationName, profile));
             
             HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
             
             if (response.statusCode() == 200) {
-                Configuration config = objectMapper.readValue(response.body(), Configuration.class);
+                Configuration config = readConfiguration(response.body());
                 logger.info("Successfully fetched configuration for {}-{}", applicationName, profile);
                 return config;
             } else {
+                logRetryAfter(response);
                 logger.warn("HTTP {} received from config server for {}-{}", 
                            response.statusCode(), applicationName, profile);
                 return null;
@@ -69,10 +98,209 @@ public class ConfigService {
         }
     }
 
+    /**
+     * The server answers with a Spring Cloud Config {@code Environment}: property
+     * sources ordered from highest to lowest precedence. They are flattened the
+     * same way the server flattens them for {@code /delta} (the first source that
+     * defines a key wins), so full fetches and deltas describe the same map.
+     * Bodies that already are a flat {@link Configuration} are read as such.
+     */
+    private Configuration readConfiguration(String body) throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        JsonNode propertySources = root.get("propertySources");
+        if (propertySources == null || !propertySources.isArray()) {
+            return objectMapper.treeToValue(root, Configuration.class);
+        }
+        
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (JsonNode propertySource : propertySources) {
+            JsonNode source = propertySource.get("source");
+            if (source == null || !source.isObject()) {
+                continue;
+            }
+            Map<String, Object> values = objectMapper.convertValue(source, new TypeReference<Map<String, Object>>() {});
+            values.forEach(properties::putIfAbsent);
+        }
+        
+        JsonNode profiles = root.get("profiles");
+        String environment = profiles != null && profiles.isArray() && profiles.size() > 0
+                ? String.join(",", objectMapper.convertValue(profiles, new TypeReference<List<String>>() {}))
+                : null;
+        return new Configuration(root.path("version").textValue(), properties, environment);
+    }
+
+    public List<FeatureDefinition> fetchFeatureDefinitionsFromServer(String applicationName, String profile) {
+        try {
+            String url = String.format("%s/%s/%s/features/definitions", AppConfig.getConfigServerUrl(), applicationName, profile);
+            logger.debug("Fetching feature definitions from: {}", url);
+            
+            HttpRequest request = newRequest(url, fetchType(featureCache, applicationName, profile));
+            
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            
+            if (response.statusCode() == 200) {
+                return objectMapper.readValue(response.body(), new TypeReference<List<FeatureDefinition>>() {});
+            } else {
+                logRetryAfter(response);
+                logger.warn("HTTP {} received from config server for feature definitions of {}-{}", 
+                           response.statusCode(), applicationName, profile);
+                return null;
+            }
+            
+        } catch (IOException e) {
+            logger.error("IO error while fetching feature definitions for {}-{}: {}", 
+                        applicationName, profile, e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            logger.error("Request interrupted while fetching feature definitions for {}-{}", 
+                        applicationName, profile);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            logger.error("Unexpected error while fetching feature definitions for {}-{}: {}", 
+                        applicationName, profile, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    public ConfigDelta fetchDeltaFromServer(String applicationName, String profile, String sinceVersion) {
+        try {
+            String url = String.format("%s/%s/%s/delta?since=%s", AppConfig.getConfigServerUrl(), applicationName, profile,
+                    URLEncoder.encode(sinceVersion, StandardCharsets.UTF_8)) + projectionQuery('&');
+            logger.debug("Fetching configuration delta from: {}", url);
+            
+            HttpRequest request = newRequest(url, FETCH_REFRESH);
+            
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            
+            if (response.statusCode() == 200) {
+                return objectMapper.readValue(response.body(), ConfigDelta.class);
+            } else {
+                logRetryAfter(response);
+                logger.warn("HTTP {} received from config server for delta of {}-{}", 
+                           response.statusCode(), applicationName, profile);
+                return null;
+            }
+            
+        } catch (IOException e) {
+            logger.error("IO error while fetching configuration delta for {}-{}: {}", 
+                        applicationName, profile, e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            logger.error("Request interrupted while fetching configuration delta for {}-{}", 
+                        applicationName, profile);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            logger.error("Unexpected error while fetching configuration delta for {}-{}: {}", 
+                        applicationName, profile, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Applies a delta to the configuration held under the key and swaps in the
+     * result. The previous {@link Configuration} is left untouched, so readers
+     * never see a partially applied delta. Returns the new configuration, or
+     * {@code null} when the delta does not apply to what is in memory.
+     */
+    public Configuration applyDelta(String key, ConfigDelta delta) {
+        Configuration existing = configCache.get(key);
+        Map<String, Object> properties;
+        if (delta.isFull()) {
+            properties = delta.getProperties() != null ? new HashMap<>(delta.getProperties()) : new HashMap<>();
+        } else {
+            if (existing == null || !Objects.equals(existing.getVersion(), delta.getSince())) {
+                logger.warn("Delta for {} is based on {}, but {} is in memory", key, delta.getSince(),
+                           existing != null ? existing.getVersion() : null);
+                return null;
+            }
+            if (existing.getProperties() == null) {
+                // Nothing to apply the changes to; the caller fetches everything instead
+                logger.warn("Delta for {} cannot be applied: no properties in memory", key);
+                return null;
+            }
+            properties = new HashMap<>(existing.getProperties());
+            properties.putAll(delta.getAdded());
+            properties.putAll(delta.getModified());
+            delta.getRemoved().forEach(properties::remove);
+        }
+        
+        Configuration updated = new Configuration(delta.getVersion(), properties,
+                existing != null ? existing.getEnvironment() : null);
+        Configuration previous = configCache.put(key, updated);
+        recordSwap(key, "delta", updated.getVersion(), propertyCount(previous), propertyCount(updated));
+        logger.info("Configuration delta applied in memory for key: {} ({} -> {})", key, delta.getSince(), delta.getVersion());
+        notifyChangeListeners(key, previous, updated);
+        return updated;
+    }
+
+    /**
+     * Requests carry the client id and whether this is the first fetch of the key,
+     * which the server's admission control uses to prioritise bootstrap fetches
+     * over periodic refreshes.
+     */
+    private HttpRequest newRequest(String url, String fetchType) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofMillis(AppConfig.getConfigServerTimeout()))
+                .header(CLIENT_ID_HEADER, clientId)
+                .header(FETCH_TYPE_HEADER, fetchType)
+                .GET()
+                .build();
+    }
+
+    /**
+     * {@code prefix=} parameters for the prefixes this client declared, so the
+     * server only sends (and we only parse) the subtrees actually used.
+     */
+    private static String projectionQuery(char separator) {
+        List<String> prefixes = AppConfig.getPropertyPrefixes();
+        if (prefixes.isEmpty()) {
+            return "";
+        }
+        StringBuilder query = new StringBuilder();
+        for (String prefix : prefixes) {
+            query.append(query.length() == 0 ? separator : '&')
+                    .append("prefix=")
+                    .append(URLEncoder.encode(prefix, StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+
+    private static String fetchType(Map<String, ?> cache, String applicationName, String profile) {
+        return cache.containsKey(applicationName + "-" + profile) ? FETCH_REFRESH : FETCH_BOOTSTRAP;
+    }
+
+    private static void logRetryAfter(HttpResponse<?> response) {
+        response.headers().firstValue("Retry-After")
+                .ifPresent(seconds -> logger.info("Config server asked to retry after {}s", seconds));
+    }
+
     public void updateConfigInMemory(String key, Configuration configuration) {
         if (configuration != null) {
-            configCache.put(key, configuration);
+            Configuration previous = configCache.put(key, configuration);
+            recordSwap(key, "config", configuration.getVersion(), propertyCount(previous), propertyCount(configuration));
             logger.info("Configuration updated in memory for key: {}", key);
+            notifyChangeListeners(key, previous, configuration);
+        }
+    }
+
+    public void addChangeListener(ConfigChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(ConfigChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void notifyChangeListeners(String key, Configuration previous, Configuration current) {
+        for (ConfigChangeListener listener : changeListeners) {
+            try {
+                listener.configurationChanged(key, previous, current);
+            } catch (Exception e) {
+                logger.error("Configuration change listener failed for key {}: {}", key, e.getMessage(), e);
+            }
         }
     }
 
@@ -80,13 +308,51 @@ public class ConfigService {
         return configCache.get(key);
     }
 
+    /**
+     * Swaps in a freshly compiled feature snapshot. Readers holding the previous
+     * snapshot keep evaluating against it until their next lookup.
+     */
+    public void updateFeaturesInMemory(String key, FeatureSnapshot snapshot) {
+        if (snapshot != null) {
+            FeatureSnapshot previous = featureCache.put(key, snapshot);
+            recordSwap(key, "features", null, previous != null ? previous.size() : -1, snapshot.size());
+            logger.debug("Feature snapshot updated in memory for key: {} ({} flags)", key, snapshot.size());
+        }
+    }
+
+    private static void recordSwap(String key, String kind, String version, int previousSize, int newSize) {
+        SnapshotSwapEvent event = new SnapshotSwapEvent();
+        if (event.shouldCommit()) {
+            event.key = key;
+            event.kind = kind;
+            event.version = version;
+            event.previousSize = previousSize;
+            event.newSize = newSize;
+            event.commit();
+        }
+    }
+
+    private static int propertyCount(Configuration configuration) {
+        if (configuration == null) {
+            return -1;
+        }
+        return configuration.getProperties() != null ? configuration.getProperties().size() : 0;
+    }
+
+    public FeatureSnapshot getFeaturesFromMemory(String key) {
+        return featureCache.get(key);
+    }
+
     public Map<String, Configuration> getAllConfigurations() {
         return Map.copyOf(configCache);
     }
 
     public void clearCache() {
+        Map<String, Configuration> cleared = Map.copyOf(configCache);
         configCache.clear();
+        featureCache.clear();
         logger.info("Configuration cache cleared");
+        cleared.forEach((key, previous) -> notifyChangeListeners(key, previous, null));
     }
 
     public boolean hasConfiguration(String key) {
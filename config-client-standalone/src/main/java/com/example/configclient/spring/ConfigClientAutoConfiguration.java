@@ -0,0 +1,23 @@
+package com.example.configclient.spring;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Publishes refresh events for the config client's property source, which
+ * {@link ConfigClientEnvironmentPostProcessor} has already added to the
+ * environment.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(name = ConfigClientEnvironmentPostProcessor.ENABLED_PROPERTY, matchIfMissing = true)
+public class ConfigClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ConfigClientRefreshPublisher configClientRefreshPublisher(ApplicationContext applicationContext) {
+        return new ConfigClientRefreshPublisher(applicationContext, ConfigClientPropertySource.shared());
+    }
+}
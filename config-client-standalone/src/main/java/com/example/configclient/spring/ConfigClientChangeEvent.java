@@ -0,0 +1,23 @@
+package com.example.configclient.spring;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Published when the config client has swapped in snapshots that change the
+ * values of the given keys in {@link ConfigClientPropertySource}.
+ */
+public class ConfigClientChangeEvent extends ApplicationEvent {
+
+    private final Set<String> keys;
+
+    public ConfigClientChangeEvent(Object source, Set<String> keys) {
+        super(source);
+        this.keys = Set.copyOf(keys);
+    }
+
+    public Set<String> getKeys() {
+        return keys;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.configclient.spring;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.CommandLinePropertySource;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MutablePropertySources;
+
+/**
+ * Adds {@link ConfigClientPropertySource} to the environment, above every other
+ * source except command-line arguments. Runs after the application's own config
+ * files have been loaded, so {@code config.client.spring.enabled=false} in them
+ * turns the integration off.
+ */
+public class ConfigClientEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    static final String ENABLED_PROPERTY = "config.client.spring.enabled";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        MutablePropertySources propertySources = environment.getPropertySources();
+        if (!environment.getProperty(ENABLED_PROPERTY, Boolean.class, true)
+                || propertySources.contains(ConfigClientPropertySource.NAME)) {
+            return;
+        }
+        ConfigClientPropertySource propertySource = ConfigClientPropertySource.shared();
+        if (propertySources.contains(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME)) {
+            propertySources.addAfter(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME, propertySource);
+        } else {
+            propertySources.addFirst(propertySource);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.configclient.spring;
+
+import com.example.configclient.ConfigClientManager;
+import com.example.configclient.config.AppConfig;
+import com.example.configclient.model.Configuration;
+import com.example.configclient.service.ConfigChangeListener;
+import com.example.configclient.service.ConfigService;
+import org.springframework.core.env.EnumerablePropertySource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Exposes the client's in-memory configurations to a Spring {@code Environment}.
+ * <p>
+ * The configured application-profile pairs are merged into one immutable map
+ * whenever one of their snapshots is swapped, so a lookup is a single hash
+ * lookup against the current merged view. Later pairs override earlier ones, in
+ * the order of {@code config.applications} and then {@code config.profiles}, as
+ * with Spring profiles. Each rebuild reports the keys whose values actually
+ * changed to the registered change listeners.
+ */
+public class ConfigClientPropertySource extends EnumerablePropertySource<ConfigService>
+        implements ConfigChangeListener {
+
+    public static final String NAME = "configClient";
+
+    private static volatile ConfigClientPropertySource shared;
+
+    private final List<String> configurationKeys;
+    private final List<Consumer<Set<String>>> changeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Map<String, Object> properties = Map.of();
+    private volatile String[] propertyNames = new String[0];
+
+    public ConfigClientPropertySource(ConfigService configService, List<String> configurationKeys) {
+        super(NAME, configService);
+        this.configurationKeys = List.copyOf(configurationKeys);
+        rebuild();
+        configService.addChangeListener(this);
+    }
+
+    /**
+     * The property source over the auto-started client, shared by every Spring
+     * context in the JVM.
+     */
+    public static ConfigClientPropertySource shared() {
+        if (shared == null) {
+            synchronized (ConfigClientPropertySource.class) {
+                if (shared == null) {
+                    shared = new ConfigClientPropertySource(ConfigClientManager.getInstance().getConfigService(),
+                            configurationKeys());
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Cache keys of the configured application-profile pairs, lowest precedence first.
+     */
+    public static List<String> configurationKeys() {
+        List<String> keys = new ArrayList<>();
+        for (String applicationName : AppConfig.getApplicationNames()) {
+            for (String profile : AppConfig.getProfiles()) {
+                keys.add(applicationName + "-" + profile);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return properties.get(name);
+    }
+
+    @Override
+    public boolean containsProperty(String name) {
+        return properties.containsKey(name);
+    }
+
+    @Override
+    public String[] getPropertyNames() {
+        return propertyNames.clone();
+    }
+
+    public void addChangeListener(Consumer<Set<String>> listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Consumer<Set<String>> listener) {
+        changeListeners.remove(listener);
+    }
+
+    @Override
+    public void configurationChanged(String key, Configuration previous, Configuration current) {
+        if (!configurationKeys.contains(key)) {
+            return;
+        }
+        Set<String> changedKeys = rebuild();
+        if (!changedKeys.isEmpty()) {
+            for (Consumer<Set<String>> listener : changeListeners) {
+                listener.accept(changedKeys);
+            }
+        }
+    }
+
+    /**
+     * Re-merges the current snapshots and returns the keys that were added,
+     * removed or changed value.
+     */
+    synchronized Set<String> rebuild() {
+        Map<String, Object> merged = new HashMap<>();
+        for (String key : configurationKeys) {
+            Configuration configuration = getSource().getConfigFromMemory(key);
+            if (configuration != null && configuration.getProperties() != null) {
+                merged.putAll(configuration.getProperties());
+            }
+        }
+
+        Map<String, Object> previous = properties;
+        Set<String> changedKeys = new HashSet<>();
+        merged.forEach((name, value) -> {
+            if (!Objects.equals(value, previous.get(name))) {
+                changedKeys.add(name);
+            }
+        });
+        previous.keySet().stream().filter(name -> !merged.containsKey(name)).forEach(changedKeys::add);
+
+        properties = Collections.unmodifiableMap(merged);
+        propertyNames = merged.keySet().toArray(new String[0]);
+        return changedKeys;
+    }
+}
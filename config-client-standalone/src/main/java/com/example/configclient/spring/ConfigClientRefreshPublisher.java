@@ -0,0 +1,63 @@
+package com.example.configclient.spring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.util.ClassUtils;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Turns snapshot changes of {@link ConfigClientPropertySource} into application
+ * events that carry only the changed keys: a {@link ConfigClientChangeEvent},
+ * and an {@code EnvironmentChangeEvent} when Spring Cloud Context is present, so
+ * {@code @ConfigurationProperties} beans and other key-aware listeners rebind
+ * without a full context refresh.
+ */
+public class ConfigClientRefreshPublisher implements Consumer<Set<String>>, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigClientRefreshPublisher.class);
+
+    private static final boolean CLOUD_CONTEXT_PRESENT = ClassUtils.isPresent(
+            "org.springframework.cloud.context.environment.EnvironmentChangeEvent",
+            ConfigClientRefreshPublisher.class.getClassLoader());
+
+    private final ApplicationContext applicationContext;
+    private final ConfigClientPropertySource propertySource;
+
+    public ConfigClientRefreshPublisher(ApplicationContext applicationContext,
+                                        ConfigClientPropertySource propertySource) {
+        this.applicationContext = applicationContext;
+        this.propertySource = propertySource;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        propertySource.addChangeListener(this);
+    }
+
+    @Override
+    public void destroy() {
+        propertySource.removeChangeListener(this);
+    }
+
+    @Override
+    public void accept(Set<String> changedKeys) {
+        logger.debug("Publishing change of {} keys", changedKeys.size());
+        applicationContext.publishEvent(new ConfigClientChangeEvent(applicationContext, changedKeys));
+        if (CLOUD_CONTEXT_PRESENT) {
+            CloudEvents.publish(applicationContext, changedKeys);
+        }
+    }
+
+    // Kept apart so the Spring Cloud class is only loaded when it is on the classpath
+    private static final class CloudEvents {
+        static void publish(ApplicationContext applicationContext, Set<String> changedKeys) {
+            applicationContext.publishEvent(new EnvironmentChangeEvent(applicationContext, changedKeys));
+        }
+    }
+}
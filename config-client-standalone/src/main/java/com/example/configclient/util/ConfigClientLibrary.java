@@ -1,6 +1,7 @@
 package com.example.configclient.util;
 
 import com.example.configclient.ConfigClientManager;
+import com.example.configclient.feature.FeatureContext;
 import com.example.configclient.model.Configuration;
 import com.example.configclient.service.ConfigService;
 import org.slf4j.Logger;
@@ -29,6 +30,20 @@ public class ConfigClientLibrary {
         return ConfigUtil.getProperty(applicationName, profile, propertyKey, defaultValue);
     }
     
+    /**
+     * Evaluate a feature flag locally against the last fetched definitions
+     */
+    public static boolean isEnabled(String applicationName, String profile, String featureName, FeatureContext context) {
+        return ConfigUtil.isEnabled(applicationName, profile, featureName, context);
+    }
+    
+    /**
+     * Evaluate a feature flag locally with an empty context
+     */
+    public static boolean isEnabled(String applicationName, String profile, String featureName) {
+        return ConfigUtil.isEnabled(applicationName, profile, featureName, FeatureContext.empty());
+    }
+    
     /**
      * Get the complete configuration for an application-profile combination
      */
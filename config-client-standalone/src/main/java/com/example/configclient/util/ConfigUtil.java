@@ -1,5 +1,7 @@
 package com.example.configclient.util;
 
+import com.example.configclient.feature.FeatureContext;
+import com.example.configclient.feature.FeatureSnapshot;
 import com.example.configclient.model.Configuration;
 import com.example.configclient.service.ConfigService;
 import org.slf4j.Logger;
@@ -37,6 +39,16 @@ public class ConfigUtil {
         return value != null ? value.toString() : defaultValue;
     }
 
+    public static boolean isEnabled(String applicationName, String profile, String featureName, FeatureContext context) {
+        if (configService == null) {
+            logger.warn("ConfigService not initialized, feature {} is disabled", featureName);
+            return false;
+        }
+
+        FeatureSnapshot features = configService.getFeaturesFromMemory(applicationName + "-" + profile);
+        return features != null && features.isEnabled(featureName, context);
+    }
+
     public static void printAllConfigurations() {
         if (configService == null) {
             logger.warn("ConfigService not initialized");
@@ -0,0 +1,198 @@
+package com.example.configclient.feature;
+
+import com.example.configclient.model.FeatureDefinition;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getunleash.ActivationStrategy;
+import io.getunleash.Constraint;
+import io.getunleash.DefaultUnleash;
+import io.getunleash.FeatureToggle;
+import io.getunleash.Operator;
+import io.getunleash.Segment;
+import io.getunleash.Unleash;
+import io.getunleash.UnleashContext;
+import io.getunleash.repository.IFeatureRepository;
+import io.getunleash.util.UnleashConfig;
+import io.getunleash.util.UnleashScheduledExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Evaluates the same toggles with the Unleash SDK, as the config server does,
+ * and with the client's compiled definitions, and expects the same answer for
+ * every context. The definitions reach the client as they do in production:
+ * the SDK's own model serialized to JSON.
+ */
+class CompiledFeatureParityTest {
+
+    private static final int CONTEXTS = 2000;
+    private static final List<String> TENANTS = List.of("acme", "Acme-EU", "globex", "initech-us", "umbrella");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void gradualRolloutsBucketLikeTheSdk() throws Exception {
+        assertParity(List.of(
+                toggle("users-10", strategy("gradualRolloutUserId", Map.of("percentage", "10", "groupId", "users-10"))),
+                toggle("users-50", strategy("gradualRolloutUserId", Map.of("percentage", "50", "groupId", "shared"))),
+                toggle("users-93", strategy("gradualRolloutUserId", Map.of("percentage", "93", "groupId", "shared"))),
+                toggle("sessions-37", strategy("gradualRolloutSessionId", Map.of("percentage", "37", "groupId", "s"))),
+                toggle("users-0", strategy("gradualRolloutUserId", Map.of("percentage", "0", "groupId", "zero")))));
+    }
+
+    @Test
+    void flexibleRolloutStickinessMatchesTheSdk() throws Exception {
+        assertParity(List.of(
+                toggle("default-stickiness", strategy("flexibleRollout",
+                        Map.of("rollout", "40", "stickiness", "default", "groupId", "default-stickiness"))),
+                toggle("user-stickiness", strategy("flexibleRollout",
+                        Map.of("rollout", "65", "stickiness", "userId", "groupId", "g1"))),
+                toggle("session-stickiness", strategy("flexibleRollout",
+                        Map.of("rollout", "20", "stickiness", "sessionId", "groupId", "g2"))),
+                toggle("tenant-stickiness", strategy("flexibleRollout",
+                        Map.of("rollout", "50", "stickiness", "tenant", "groupId", "g3"))),
+                toggle("full-rollout", strategy("flexibleRollout",
+                        Map.of("rollout", "100", "stickiness", "userId", "groupId", "g4")))));
+    }
+
+    @Test
+    void constraintOperatorsMatchTheSdk() throws Exception {
+        assertParity(List.of(
+                toggle("in", constrained(constraint("tenant", Operator.IN, false, false, "acme", "globex"))),
+                toggle("in-ignore-case", constrained(constraint("tenant", Operator.IN, false, true, "ACME-eu"))),
+                toggle("not-in", constrained(constraint("tenant", Operator.NOT_IN, false, false, "acme"))),
+                toggle("inverted-in", constrained(constraint("tenant", Operator.IN, true, false, "umbrella"))),
+                toggle("contains", constrained(constraint("tenant", Operator.STR_CONTAINS, false, false, "-e"))),
+                toggle("contains-ignore-case", constrained(constraint("tenant", Operator.STR_CONTAINS, false, true, "ACME"))),
+                toggle("starts-with", constrained(constraint("tenant", Operator.STR_STARTS_WITH, false, false, "ini", "glo"))),
+                toggle("ends-with-inverted", constrained(constraint("tenant", Operator.STR_ENDS_WITH, true, false, "-us"))),
+                toggle("user-in", constrained(constraint("userId", Operator.IN, false, false, "user-1", "user-7"))),
+                toggle("two-constraints", constrained(
+                        constraint("tenant", Operator.STR_STARTS_WITH, false, true, "a"),
+                        constraint("sessionId", Operator.NOT_IN, false, false, "session-3")))));
+    }
+
+    @Test
+    void strategiesWithUnresolvedSegmentsAreOff() throws Exception {
+        FeatureToggle segmented = toggle("segmented",
+                new ActivationStrategy("default", Map.of(), List.of(), List.of(1)),
+                strategy("userWithId", Map.of("userIds", "user-3")));
+
+        FeatureSnapshot snapshot = FeatureSnapshot.compile(definitions(List.of(segmented)));
+
+        assertThat(snapshot.isEnabled("segmented", FeatureContext.forUser("user-1"))).isFalse();
+        assertThat(snapshot.isEnabled("segmented", FeatureContext.forUser("user-3"))).isTrue();
+    }
+
+    private void assertParity(List<FeatureToggle> toggles) throws Exception {
+        Unleash unleash = sdk(toggles);
+        FeatureSnapshot snapshot = FeatureSnapshot.compile(definitions(toggles));
+
+        Random random = new Random(42);
+        for (int i = 0; i < CONTEXTS; i++) {
+            FeatureContext context = randomContext(random);
+            for (FeatureToggle toggle : toggles) {
+                assertThat(snapshot.isEnabled(toggle.getName(), context))
+                        .as("%s for %s", toggle.getName(), describe(context))
+                        .isEqualTo(unleash.isEnabled(toggle.getName(), unleashContext(context)));
+            }
+        }
+    }
+
+    private List<FeatureDefinition> definitions(List<FeatureToggle> toggles) throws Exception {
+        return objectMapper.readValue(objectMapper.writeValueAsString(toggles),
+                new TypeReference<List<FeatureDefinition>>() { });
+    }
+
+    // Every context carries a user or a session id, so default stickiness never falls back to random
+    private static FeatureContext randomContext(Random random) {
+        String userId = random.nextInt(5) == 0 ? null : "user-" + random.nextInt(500);
+        String sessionId = userId == null || random.nextBoolean() ? "session-" + random.nextInt(500) : null;
+        Map<String, String> properties = random.nextInt(4) == 0
+                ? Map.of() : Map.of("tenant", TENANTS.get(random.nextInt(TENANTS.size())));
+        return new FeatureContext(userId, sessionId, null, properties);
+    }
+
+    private static UnleashContext unleashContext(FeatureContext context) {
+        UnleashContext.Builder builder = UnleashContext.builder()
+                .userId(context.getUserId())
+                .sessionId(context.getSessionId());
+        context.getProperties().forEach(builder::addProperty);
+        return builder.build();
+    }
+
+    private static String describe(FeatureContext context) {
+        return "userId=" + context.getUserId() + ", sessionId=" + context.getSessionId()
+                + ", properties=" + context.getProperties();
+    }
+
+    private static Unleash sdk(List<FeatureToggle> toggles) {
+        Map<String, FeatureToggle> byName = new LinkedHashMap<>();
+        toggles.forEach(toggle -> byName.put(toggle.getName(), toggle));
+        IFeatureRepository repository = new IFeatureRepository() {
+            @Override
+            public FeatureToggle getToggle(String name) {
+                return byName.get(name);
+            }
+
+            @Override
+            public List<String> getFeatureNames() {
+                return new ArrayList<>(byName.keySet());
+            }
+
+            @Override
+            public Segment getSegment(Integer id) {
+                return null;
+            }
+        };
+        UnleashConfig config = UnleashConfig.builder()
+                .appName("parity-test")
+                .unleashAPI("http://localhost:4242/api")
+                .disableMetrics()
+                .disablePolling()
+                .scheduledExecutor(new InertExecutor())
+                .build();
+        return new DefaultUnleash(config, repository);
+    }
+
+    private static FeatureToggle toggle(String name, ActivationStrategy... strategies) {
+        return new FeatureToggle(name, true, List.of(strategies));
+    }
+
+    private static ActivationStrategy strategy(String name, Map<String, String> parameters) {
+        return new ActivationStrategy(name, parameters);
+    }
+
+    private static ActivationStrategy constrained(Constraint... constraints) {
+        return new ActivationStrategy("default", Map.of(), List.of(constraints), List.of());
+    }
+
+    private static Constraint constraint(String contextName, Operator operator, boolean inverted,
+                                         boolean caseInsensitive, String... values) {
+        return new Constraint(contextName, operator, List.of(values), inverted, caseInsensitive);
+    }
+
+    // The SDK's events and metrics have no subscriber here
+    private static final class InertExecutor implements UnleashScheduledExecutor {
+
+        @Override
+        public ScheduledFuture<?> setInterval(Runnable command, long initialDelaySec, long periodSec) {
+            return null;
+        }
+
+        @Override
+        public Future<Void> scheduleOnce(Runnable runnable) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
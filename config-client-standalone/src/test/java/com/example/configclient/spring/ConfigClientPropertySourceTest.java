@@ -0,0 +1,119 @@
+package com.example.configclient.spring;
+
+import com.example.configclient.model.ConfigDelta;
+import com.example.configclient.model.Configuration;
+import com.example.configclient.service.ConfigService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the client against a stub server that answers like the config server:
+ * an {@code Environment} with several property sources for full fetches, and
+ * key-level changes for {@code /delta}.
+ */
+class ConfigClientPropertySourceTest {
+
+    private static final String ENVIRONMENT = """
+            {"name":"myapp","profiles":["default"],"label":"main","version":"v1","state":null,
+             "propertySources":[
+               {"name":"git:main:myapp.yml","source":{"app.message":"from myapp","app.timeout":30}},
+               {"name":"git:main:application.yml","source":{"app.message":"shared","app.retries":3,"logging.level.root":"INFO"}}
+             ]}""";
+
+    private static final String DELTA = """
+            {"application":"myapp","profile":"default","label":"main","since":"v1","version":"v2","full":false,
+             "added":{"app.region":"eu"},"modified":{"app.timeout":45},"removed":["app.retries"]}""";
+
+    private static final Map<String, String> responses = new ConcurrentHashMap<>();
+    private static HttpServer server;
+
+    private ConfigService configService;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String body = responses.get(exchange.getRequestURI().getPath());
+            byte[] bytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(body != null ? 200 : 404, body != null ? bytes.length : -1);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        // Read by AppConfig when it is first loaded
+        System.setProperty("config.server.url", "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        responses.clear();
+        responses.put("/myapp/default", ENVIRONMENT);
+        responses.put("/myapp/default/delta", DELTA);
+        configService = new ConfigService(HttpClient.newHttpClient(), "test-client");
+    }
+
+    @Test
+    void exposesEveryPropertyOfAnEnvironmentResponse() {
+        ConfigClientPropertySource propertySource = new ConfigClientPropertySource(configService, List.of("myapp-default"));
+
+        configService.updateConfigInMemory("myapp-default", configService.fetchConfigurationFromServer("myapp", "default"));
+
+        assertThat(propertySource.getPropertyNames())
+                .containsExactlyInAnyOrder("app.message", "app.timeout", "app.retries", "logging.level.root");
+        assertThat(propertySource.getProperty("app.message")).isEqualTo("from myapp");
+        assertThat(propertySource.getProperty("app.timeout")).isEqualTo(30);
+        assertThat(propertySource.getProperty("app.retries")).isEqualTo(3);
+    }
+
+    @Test
+    void keepsUnchangedPropertiesWhenADeltaIsApplied() {
+        ConfigClientPropertySource propertySource = new ConfigClientPropertySource(configService, List.of("myapp-default"));
+        configService.updateConfigInMemory("myapp-default", configService.fetchConfigurationFromServer("myapp", "default"));
+        List<Set<String>> changes = new CopyOnWriteArrayList<>();
+        propertySource.addChangeListener(changes::add);
+
+        ConfigDelta delta = configService.fetchDeltaFromServer("myapp", "default", "v1");
+        Configuration updated = configService.applyDelta("myapp-default", delta);
+
+        assertThat(updated).isNotNull();
+        assertThat(updated.getVersion()).isEqualTo("v2");
+        assertThat(propertySource.getPropertyNames())
+                .containsExactlyInAnyOrder("app.message", "app.timeout", "app.region", "logging.level.root");
+        assertThat(propertySource.getProperty("app.message")).isEqualTo("from myapp");
+        assertThat(propertySource.getProperty("app.timeout")).isEqualTo(45);
+        assertThat(changes).containsExactly(Set.of("app.timeout", "app.region", "app.retries"));
+    }
+
+    @Test
+    void refusesADeltaWhenNoPropertiesAreInMemory() {
+        configService.updateConfigInMemory("myapp-default", new Configuration("v1", null, "default"));
+
+        ConfigDelta delta = configService.fetchDeltaFromServer("myapp", "default", "v1");
+
+        assertThat(configService.applyDelta("myapp-default", delta)).isNull();
+        assertThat(configService.getConfigFromMemory("myapp-default").getVersion()).isEqualTo("v1");
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs config-server as a child JVM wired to the local stand-ins: the generated
+ * Git repository, the {@link VaultStub} and FakeUnleash ({@code unleash.enabled=false}).
+ * Keycloak, the server's own config client and Spring Cloud Vault are switched
+ * off; admission control only runs when {@code loadtest.server.admission} is set.
+ * {@code loadtest.server.virtual-threads} picks the request thread model and
+ * {@code loadtest.server.args} adds any other server settings.
+ */
+public class ConfigServerProcess implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigServerProcess.class);
+
+    private final Process process;
+    private final String url;
+
+    private ConfigServerProcess(Process process, String url) {
+        this.process = process;
+        this.url = url;
+    }
+
+    public static ConfigServerProcess start(LoadTestConfig config, LocalConfigRepository repository, VaultStub vault)
+            throws Exception {
+        File jar = new File(config.getServerJar());
+        if (!jar.isFile()) {
+            throw new IllegalStateException("config-server jar not found: " + jar.getAbsolutePath()
+                    + " (build it with mvn package in config-server, or set loadtest.target.url)");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(config.getServerJvmArgs());
+        command.add("-jar");
+        command.add(jar.getAbsolutePath());
+        command.add("--server.port=" + config.getServerPort());
+        command.add("--spring.profiles.active=loadtest");
+        command.add("--spring.cloud.config.server.git.uri=" + repository.getUri());
+        command.add("--spring.cloud.config.server.git.default-label=main");
+        command.add("--spring.cloud.config.enabled=false");
+        command.add("--spring.cloud.vault.enabled=false");
+        command.add("--vault.enabled=true");
+        command.add("--vault.address=" + vault.getAddress());
+        command.add("--unleash.enabled=false");
+        command.add("--keycloak.enabled=false");
+        command.add("--config.admission.enabled=" + config.isServerAdmissionEnabled());
+        // Every simulated client connects from loopback; tell them apart by their id
+        command.add("--config.admission.client-key=header");
+        if (!config.getServerVirtualThreads().isEmpty()) {
+            command.add("--spring.threads.virtual.enabled=" + config.getServerVirtualThreads());
+        }
+        command.add("--logging.level.root=WARN");
+        command.add("--logging.level.com.example=WARN");
+        command.add("--logging.level.org.springframework.cloud.config=WARN");
+        command.addAll(config.getServerArgs());
+
+        Path log = repository.getRoot().resolve("config-server.log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        String url = "http://127.0.0.1:" + config.getServerPort();
+        ConfigServerProcess server = new ConfigServerProcess(process, url);
+        logger.info("Starting config-server on {} (log: {})", url, log);
+
+        try {
+            server.awaitReady(Duration.ofSeconds(config.getServerStartupTimeoutSeconds()));
+        } catch (Exception e) {
+            server.close();
+            throw e;
+        }
+        return server;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    private void awaitReady(Duration timeout) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(url + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("config-server exited with " + process.exitValue());
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    logger.info("config-server is ready");
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("config-server not ready after " + timeout.toSeconds() + "s");
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
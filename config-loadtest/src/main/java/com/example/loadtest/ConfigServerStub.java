@@ -0,0 +1,151 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for config-server that answers {@code /{application}/{profile}}
+ * in the server's environment format from 200 request threads, as many as
+ * Tomcat's default pool. Platform threads on purpose: the stub must not compete
+ * with the simulated clients for virtual-thread carriers. The version
+ * is {@code v<revision>} and moves with {@link #publishRevision()}. Responses can
+ * be slowed down for a window of the run to see how the fleet copes.
+ * <p>
+ * {@code /delta} is not implemented (the simulation turns delta refresh off for
+ * the stub) and feature definitions are always empty.
+ */
+public class ConfigServerStub implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigServerStub.class);
+
+    private static final int REQUEST_THREADS = 200;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int propertiesPerApplication;
+    private final long latencyMs;
+    private final AtomicLong revision = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+
+    private volatile long slowdownFrom = Long.MAX_VALUE;
+    private volatile long slowdownUntil = Long.MIN_VALUE;
+    private volatile long slowdownLatencyMs;
+
+    private ConfigServerStub(HttpServer server, ExecutorService executor, int propertiesPerApplication, long latencyMs) {
+        this.server = server;
+        this.executor = executor;
+        this.propertiesPerApplication = propertiesPerApplication;
+        this.latencyMs = latencyMs;
+    }
+
+    public static ConfigServerStub start(int propertiesPerApplication, long latencyMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        ExecutorService executor = Executors.newFixedThreadPool(REQUEST_THREADS, r -> {
+            Thread t = new Thread(r, "config-server-stub");
+            t.setDaemon(true);
+            return t;
+        });
+        ConfigServerStub stub = new ConfigServerStub(server, executor, propertiesPerApplication, latencyMs);
+        server.createContext("/", stub::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Config server stub listening on {}", stub.getUrl());
+        return stub;
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String getVersion() {
+        return "v" + revision.get();
+    }
+
+    public String publishRevision() {
+        return "v" + revision.incrementAndGet();
+    }
+
+    /**
+     * Adds {@code latencyMs} to every response between the two instants
+     * ({@link System#nanoTime()} based).
+     */
+    public void slowDown(long fromNanos, long untilNanos, long latencyMs) {
+        this.slowdownLatencyMs = latencyMs;
+        this.slowdownFrom = fromNanos;
+        this.slowdownUntil = untilNanos;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            long now = System.nanoTime();
+            long delay = latencyMs + (now >= slowdownFrom && now < slowdownUntil ? slowdownLatencyMs : 0);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+
+            String[] segments = exchange.getRequestURI().getPath().substring(1).split("/");
+            Object body;
+            if (segments.length == 2) {
+                body = environment(segments[0], segments[1]);
+            } else if (segments.length == 4 && "features".equals(segments[2]) && "definitions".equals(segments[3])) {
+                body = List.of();
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            byte[] bytes = objectMapper.writeValueAsBytes(body);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, Object> environment(String application, String profile) {
+        String version = getVersion();
+        Map<String, Object> source = new LinkedHashMap<>();
+        for (int i = 0; i < propertiesPerApplication; i++) {
+            source.put("key-" + i, application + "-value-" + i);
+        }
+        source.put("loadtest.revision", version);
+
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("name", application);
+        environment.put("profiles", List.of(profile));
+        environment.put("label", "main");
+        environment.put("version", version);
+        environment.put("propertySources", List.of(Map.of(
+                "name", "stub:config/" + application + "/" + application + ".yml",
+                "source", source)));
+        return environment;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Throughput and latency of one endpoint over the measured part of a run.
+ * Latencies are in milliseconds.
+ */
+public class EndpointStats {
+    private long requests;
+    private long errors;
+    private double throughput;
+    private double mean;
+    private double p50;
+    private double p99;
+    private double p999;
+    private double max;
+
+    public EndpointStats() {
+    }
+
+    static EndpointStats of(Histogram histogram, long errors, double seconds) {
+        EndpointStats stats = new EndpointStats();
+        stats.requests = histogram.getTotalCount() + errors;
+        stats.errors = errors;
+        stats.throughput = seconds > 0 ? histogram.getTotalCount() / seconds : 0;
+        stats.mean = histogram.getMean() / 1000d;
+        stats.p50 = histogram.getValueAtPercentile(50) / 1000d;
+        stats.p99 = histogram.getValueAtPercentile(99) / 1000d;
+        stats.p999 = histogram.getValueAtPercentile(99.9) / 1000d;
+        stats.max = histogram.getMaxValue() / 1000d;
+        return stats;
+    }
+
+    // Getters and Setters, for the JSON report
+    public long getRequests() {
+        return requests;
+    }
+
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public void setErrors(long errors) {
+        this.errors = errors;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(double throughput) {
+        this.throughput = throughput;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public void setMean(double mean) {
+        this.mean = mean;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public void setP50(double p50) {
+        this.p50 = p50;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public void setP99(double p99) {
+        this.p99 = p99;
+    }
+
+    public double getP999() {
+        return p999;
+    }
+
+    public void setP999(double p999) {
+        this.p999 = p999;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public void setMax(double max) {
+        this.max = max;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.loadtest;
+
+import com.example.configclient.model.Configuration;
+import com.example.configclient.scheduler.ConfigScheduler;
+import com.example.configclient.service.ConfigService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs thousands of config clients in one JVM, each a real {@link ConfigService}
+ * and {@link ConfigScheduler} with its own client id, on virtual threads. A new
+ * config version is published at a fixed interval and the run reports the load
+ * the fleet put on the server, how long each version took to reach the fleet and
+ * how stale clients were.
+ * <p>
+ * Backends: config-server started locally (the default), an already running
+ * server ({@code --target.url}, versions are then only observed, not published),
+ * or {@link ConfigServerStub} ({@code --fleet.backend=stub}), which can also be
+ * slowed down for part of the run. Needs Java 21.
+ */
+public class FleetSimulation {
+    private static final Logger logger = LoggerFactory.getLogger(FleetSimulation.class);
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LoadTestConfig config;
+    private final Backend backend;
+    private final String application;
+    private final String profile;
+    private static final HttpClient probe = HttpClient.newHttpClient();
+
+    private FleetSimulation(LoadTestConfig config, Backend backend, String application, String profile) {
+        this.config = config;
+        this.backend = backend;
+        this.application = application;
+        this.profile = profile;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load(args);
+        String application = LocalConfigRepository.applicationNames(1).get(0);
+        String profile = config.getProfiles().get(0);
+
+        if ("stub".equals(config.getFleetBackend())) {
+            try (ConfigServerStub stub = ConfigServerStub.start(config.getPropertiesPerApplication(), config.getStubLatencyMs())) {
+                long slowdownAt = config.getStubSlowdownAtSeconds();
+                if (slowdownAt >= 0) {
+                    long from = System.nanoTime() + TimeUnit.SECONDS.toNanos(slowdownAt);
+                    stub.slowDown(from, from + TimeUnit.SECONDS.toNanos(config.getStubSlowdownSeconds()),
+                            config.getStubSlowdownLatencyMs());
+                }
+                Backend backend = new Backend(stub.getUrl(), true) {
+                    @Override
+                    String publish() {
+                        return stub.publishRevision();
+                    }
+                };
+                new FleetSimulation(config, backend, application, profile).run();
+                logger.info("Stub served {} requests", stub.getRequests());
+            }
+        } else if (config.isLocalServer()) {
+            try (LocalConfigRepository repository = LocalConfigRepository.create(
+                         config.getApplications(), config.getProfiles(), config.getPropertiesPerApplication());
+                 VaultStub vault = VaultStub.start(config.getVaultSecretsPerPath(), config.getVaultLatencyMs());
+                 ConfigServerProcess server = ConfigServerProcess.start(config, repository, vault)) {
+                Backend backend = new Backend(server.getUrl(), true) {
+                    private long revision;
+
+                    @Override
+                    String publish() throws Exception {
+                        String commit = repository.publishRevision(application, ++revision);
+                        // What a push webhook would do; the mirror otherwise fetches on its own schedule
+                        post(url + "/git-mirror/refresh", config.getRequestTimeoutMs());
+                        return commit;
+                    }
+                };
+                new FleetSimulation(config, backend, application, profile).run();
+            }
+        } else {
+            new FleetSimulation(config, new Backend(config.getTargetUrl(), false), application, profile).run();
+        }
+    }
+
+    private void run() throws Exception {
+        int clients = config.getFleetClients();
+        String key = application + "-" + profile;
+
+        // Read by the client's AppConfig when ConfigService is first used
+        System.setProperty("config.server.url", backend.url);
+        System.setProperty("config.server.timeout", String.valueOf(config.getRequestTimeoutMs()));
+        System.setProperty("config.applications", application);
+        System.setProperty("config.profiles", profile);
+        System.setProperty("config.refresh.interval", String.valueOf(config.getFleetRefreshIntervalMs()));
+        System.setProperty("config.health.check.interval", String.valueOf(TimeUnit.HOURS.toMillis(1)));
+        System.setProperty("config.features.local-evaluation", "false");
+        System.setProperty("config.refresh.delta", String.valueOf(!"stub".equals(config.getFleetBackend())));
+
+        PropagationTracker tracker = new PropagationTracker(clients);
+        String initial = currentVersion();
+        if (initial == null) {
+            throw new IllegalStateException("Could not read the current version of " + key + " from " + backend.url);
+        }
+        tracker.published(initial, System.nanoTime());
+
+        InstrumentedHttpClient httpClient = new InstrumentedHttpClient(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getRequestTimeoutMs()))
+                .build());
+        // One parked virtual thread per client at most; refreshes block on I/O only
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(clients,
+                Thread.ofVirtual().name("fleet-client-", 0).factory());
+
+        List<ConfigService> services = new ArrayList<>(clients);
+        List<ConfigScheduler> schedulers = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            ConfigService service = new ConfigService(httpClient, "fleet-" + i);
+            services.add(service);
+            schedulers.add(new ConfigScheduler(service, scheduler));
+        }
+
+        logger.info("Starting {} clients against {} over {}s, refreshing {} every {}ms",
+                clients, backend.url, config.getFleetRampUpSeconds(), key, config.getFleetRefreshIntervalMs());
+        long start = System.nanoTime();
+        long rampUpNanos = TimeUnit.SECONDS.toNanos(config.getFleetRampUpSeconds());
+        Thread.ofVirtual().name("fleet-ramp-up").start(() -> {
+            for (int i = 0; i < clients; i++) {
+                long wait = start + rampUpNanos * i / clients - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Thread.ofVirtual().start(schedulers.get(i)::start);
+            }
+        });
+
+        long end = start + TimeUnit.SECONDS.toNanos(config.getFleetDurationSeconds());
+        long sampleInterval = TimeUnit.MILLISECONDS.toNanos(config.getFleetSampleIntervalMs());
+        long changeInterval = TimeUnit.SECONDS.toNanos(config.getFleetChangeIntervalSeconds());
+        long nextChange = start + rampUpNanos + changeInterval;
+        long nextReport = start + REPORT_INTERVAL_NANOS;
+        Histogram serverLatency = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+        Histogram interval = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+
+        for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+            if (now >= nextChange) {
+                String version = backend.publish();
+                if (version != null) {
+                    tracker.published(version, now);
+                    logger.info("Published version {}", version);
+                }
+                nextChange += changeInterval;
+            }
+            if (!backend.publishes) {
+                // Someone else changes the config; take the first sighting as the publish time
+                String version = currentVersion();
+                if (version != null && !tracker.isKnown(version)) {
+                    tracker.published(version, now);
+                    logger.info("Observed new version {}", version);
+                }
+            }
+
+            for (int i = 0; i < clients; i++) {
+                Configuration held = services.get(i).getConfigFromMemory(key);
+                tracker.sample(i, held != null ? held.getVersion() : null, now);
+            }
+
+            if (now >= nextReport) {
+                interval.reset();
+                interval.add(httpClient.takeLatencies());
+                serverLatency.add(interval);
+                logger.info(String.format(Locale.ROOT,
+                        "server load: %.1f req/s, p50 %.1f ms, p99 %.1f ms, in flight %d, cpu %s",
+                        interval.getTotalCount() / (REPORT_INTERVAL_NANOS / 1e9),
+                        interval.getValueAtPercentile(50) / 1000d, interval.getValueAtPercentile(99) / 1000d,
+                        httpClient.getInFlight(), serverCpu()));
+                nextReport += REPORT_INTERVAL_NANOS;
+            }
+            LockSupport.parkNanos(Math.max(0, now + sampleInterval - System.nanoTime()));
+        }
+
+        schedulers.forEach(ConfigScheduler::stop);
+        scheduler.shutdownNow();
+        serverLatency.add(httpClient.takeLatencies());
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Fleet: %d clients, refresh every %d ms, %.0f s%n",
+                clients, config.getFleetRefreshIntervalMs(), seconds);
+        System.out.printf(Locale.ROOT, "Server load: %d requests (%.1f req/s), p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                serverLatency.getTotalCount(), serverLatency.getTotalCount() / seconds,
+                serverLatency.getValueAtPercentile(50) / 1000d, serverLatency.getValueAtPercentile(99) / 1000d,
+                serverLatency.getValueAtPercentile(99.9) / 1000d, serverLatency.getMaxValue() / 1000d);
+        System.out.println("Responses by status (-1 = no response): " + new TreeMap<>(httpClient.getStatusCounts()));
+        tracker.print(System.out, clients);
+    }
+
+    private String currentVersion() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(backend.url + "/" + application + "/" + profile))
+                    .timeout(Duration.ofMillis(config.getRequestTimeoutMs()))
+                    .header("X-Client-Id", "fleet-simulation")
+                    .GET()
+                    .build();
+            HttpResponse<String> response = probe.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            JsonNode version = objectMapper.readTree(response.body()).get("version");
+            return version != null && !version.isNull() ? version.asText() : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            logger.debug("Could not read the current version: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // process.cpu.usage of a config-server with actuator, "n/a" for the stub
+    private String serverCpu() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(backend.url + "/actuator/metrics/process.cpu.usage"))
+                    .timeout(Duration.ofSeconds(1))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = probe.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                JsonNode value = objectMapper.readTree(response.body()).path("measurements").path(0).path("value");
+                if (value.isNumber()) {
+                    return String.format(Locale.ROOT, "%.0f%%", value.asDouble() * 100);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.debug("Could not read server cpu: {}", e.getMessage());
+        }
+        return "n/a";
+    }
+
+    private static void post(String url, long timeoutMs) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        probe.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    /**
+     * Where the fleet fetches from, and how a new version is published there.
+     */
+    private static class Backend {
+        final String url;
+        final boolean publishes;
+
+        Backend(String url, boolean publishes) {
+            this.url = url;
+            this.publishes = publishes;
+        }
+
+        /**
+         * Publishes a new version and returns it, or {@code null} when this
+         * backend cannot publish.
+         */
+        String publish() throws Exception {
+            return null;
+        }
+    }
+}
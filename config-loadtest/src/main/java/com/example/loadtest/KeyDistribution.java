@@ -0,0 +1,52 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks which (application, profile) a request targets. {@code uniform} spreads
+ * load evenly; {@code zipf} sends most requests to a few hot keys, as a fleet
+ * dominated by a handful of large services does.
+ */
+public final class KeyDistribution {
+    // Cumulative probabilities, null for uniform
+    private final double[] cumulative;
+    private final int size;
+
+    private KeyDistribution(int size, double[] cumulative) {
+        this.size = size;
+        this.cumulative = cumulative;
+    }
+
+    public static KeyDistribution of(String name, int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("No keys to distribute load over");
+        }
+        switch (name) {
+            case "uniform":
+                return new KeyDistribution(size, null);
+            case "zipf":
+                double[] cumulative = new double[size];
+                double total = 0;
+                for (int rank = 0; rank < size; rank++) {
+                    total += 1 / Math.pow(rank + 1, exponent);
+                    cumulative[rank] = total;
+                }
+                for (int rank = 0; rank < size; rank++) {
+                    cumulative[rank] /= total;
+                }
+                return new KeyDistribution(size, cumulative);
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + name + " (uniform or zipf)");
+        }
+    }
+
+    public int next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (cumulative == null) {
+            return random.nextInt(size);
+        }
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, size - 1);
+    }
+}
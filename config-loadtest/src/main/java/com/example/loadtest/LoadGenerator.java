@@ -0,0 +1,182 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@code /{application}/{profile}} and {@code /{application}/{profile}/complete}
+ * from a fixed number of workers. Requests issued during the warm-up are not
+ * recorded.
+ * <p>
+ * With a target rate each request has an intended start time on a shared
+ * schedule and its latency is measured from there, so a stalled server shows
+ * up in the percentiles instead of silently slowing the generator down.
+ * Without one the workers run closed-loop as fast as the server answers.
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    static final String ENVIRONMENT = "environment";
+    static final String COMPLETE = "complete";
+
+    // Up to a minute, 3 significant digits, in microseconds
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final List<String> paths;
+    private final KeyDistribution distribution;
+    private final HttpClient httpClient;
+
+    public LoadGenerator(LoadTestConfig config, String baseUrl, List<String> applicationNames) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.paths = new ArrayList<>();
+        for (String application : applicationNames) {
+            for (String profile : config.getProfiles()) {
+                paths.add("/" + application + "/" + profile);
+            }
+        }
+        this.distribution = KeyDistribution.of(config.getDistribution(), paths.size(), config.getZipfExponent());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getRequestTimeoutMs()))
+                .build();
+    }
+
+    public LoadReport run() throws InterruptedException {
+        long warmupNanos = TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long durationNanos = TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long interval = config.getRate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / config.getRate()) : 0;
+        AtomicLong schedule = new AtomicLong();
+
+        logger.info("Running {} workers against {} ({} keys, {} distribution, {}) - warm-up {}s, measuring {}s",
+                config.getConcurrency(), baseUrl, paths.size(), config.getDistribution(),
+                interval > 0 ? config.getRate() + " req/s" : "closed loop",
+                config.getWarmupSeconds(), config.getDurationSeconds());
+
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < config.getConcurrency(); i++) {
+            Worker worker = new Worker("loadtest-" + i, start, measureFrom, end, interval, schedule);
+            workers.add(worker);
+            Thread thread = new Thread(worker, "loadtest-worker-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        double seconds = config.getDurationSeconds();
+        Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+        for (String endpoint : List.of(ENVIRONMENT, COMPLETE)) {
+            Histogram merged = newHistogram();
+            long errors = 0;
+            for (Worker worker : workers) {
+                merged.add(worker.histograms.get(endpoint));
+                errors += worker.errors.get(endpoint)[0];
+            }
+            if (merged.getTotalCount() + errors > 0) {
+                endpoints.put(endpoint, EndpointStats.of(merged, errors, seconds));
+            }
+        }
+        return new LoadReport(config, paths.size(), endpoints);
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(MAX_LATENCY_MICROS, 3);
+    }
+
+    private final class Worker implements Runnable {
+        private final String clientId;
+        private final long start;
+        private final long measureFrom;
+        private final long end;
+        private final long interval;
+        private final AtomicLong schedule;
+        private final Map<String, Histogram> histograms = Map.of(ENVIRONMENT, newHistogram(), COMPLETE, newHistogram());
+        private final Map<String, long[]> errors = Map.of(ENVIRONMENT, new long[1], COMPLETE, new long[1]);
+
+        Worker(String clientId, long start, long measureFrom, long end, long interval, AtomicLong schedule) {
+            this.clientId = clientId;
+            this.start = start;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.interval = interval;
+            this.schedule = schedule;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                long intended;
+                if (interval > 0) {
+                    intended = start + schedule.getAndIncrement() * interval;
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                } else {
+                    intended = System.nanoTime();
+                }
+                if (intended >= end) {
+                    return;
+                }
+
+                String endpoint = ThreadLocalRandom.current().nextDouble() < config.getCompleteRatio()
+                        ? COMPLETE : ENVIRONMENT;
+                String path = paths.get(distribution.next());
+                boolean ok = send(COMPLETE.equals(endpoint) ? path + "/complete" : path);
+                long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+
+                if (intended >= measureFrom) {
+                    if (ok) {
+                        histograms.get(endpoint).recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+                    } else {
+                        errors.get(endpoint)[0]++;
+                    }
+                }
+            }
+        }
+
+        private boolean send(String path) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofMillis(config.getRequestTimeoutMs()))
+                    .header("X-Client-Id", clientId)
+                    .header("X-Config-Fetch", "refresh")
+                    .header("Accept-Encoding", "gzip")
+                    .GET()
+                    .build();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                return response.statusCode() == 200;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (Exception e) {
+                logger.debug("Request to {} failed: {}", path, e.getMessage());
+                return false;
+            }
+        }
+    }
+}
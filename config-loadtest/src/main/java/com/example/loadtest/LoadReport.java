@@ -0,0 +1,102 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Result of a run: per-endpoint throughput and latency, plus the settings that
+ * produced them. Written as JSON so a later run can be compared against it.
+ */
+public class LoadReport {
+    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private Map<String, Object> settings = new LinkedHashMap<>();
+    private Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+
+    public LoadReport() {
+    }
+
+    LoadReport(LoadTestConfig config, int keys, Map<String, EndpointStats> endpoints) {
+        settings.put("concurrency", config.getConcurrency());
+        settings.put("rate", config.getRate());
+        settings.put("durationSeconds", config.getDurationSeconds());
+        settings.put("keys", keys);
+        settings.put("distribution", config.getDistribution());
+        settings.put("completeRatio", config.getCompleteRatio());
+        settings.put("propertiesPerApplication", config.getPropertiesPerApplication());
+        settings.put("serverVirtualThreads", config.getServerVirtualThreads());
+        settings.put("vaultLatencyMs", config.getVaultLatencyMs());
+        this.endpoints = endpoints;
+    }
+
+    public static LoadReport read(File file) throws IOException {
+        return objectMapper.readValue(file, LoadReport.class);
+    }
+
+    public void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        objectMapper.writeValue(file, this);
+    }
+
+    public void print(PrintStream out) {
+        out.println();
+        out.printf(Locale.ROOT, "%-12s %10s %8s %12s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        endpoints.forEach((name, stats) -> out.printf(Locale.ROOT, "%-12s %10d %8d %12.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, stats.getRequests(), stats.getErrors(), stats.getThroughput(),
+                stats.getP50(), stats.getP99(), stats.getP999(), stats.getMax()));
+        out.println();
+    }
+
+    /**
+     * Endpoints whose p99 is more than the allowed percentage above the baseline,
+     * or whose throughput dropped by more than that, as readable messages.
+     */
+    public List<String> regressionsAgainst(LoadReport baseline, double maxRegressionPercent) {
+        List<String> regressions = new ArrayList<>();
+        double factor = 1 + maxRegressionPercent / 100;
+        endpoints.forEach((name, stats) -> {
+            EndpointStats before = baseline.getEndpoints().get(name);
+            if (before == null) {
+                return;
+            }
+            if (stats.getP99() > before.getP99() * factor) {
+                regressions.add(String.format(Locale.ROOT, "%s p99 %.2f ms -> %.2f ms", name, before.getP99(), stats.getP99()));
+            }
+            if (stats.getThroughput() * factor < before.getThroughput()) {
+                regressions.add(String.format(Locale.ROOT, "%s throughput %.1f -> %.1f req/s",
+                        name, before.getThroughput(), stats.getThroughput()));
+            }
+        });
+        return regressions;
+    }
+
+    // Getters and Setters, for the JSON report
+    public Map<String, Object> getSettings() {
+        return settings;
+    }
+
+    public void setSettings(Map<String, Object> settings) {
+        this.settings = settings;
+    }
+
+    public Map<String, EndpointStats> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, EndpointStats> endpoints) {
+        this.endpoints = endpoints;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Measures config-server throughput and latency. By default it generates a
+ * config repository, starts a Vault stub and runs config-server against them;
+ * with {@code --target.url=...} it drives an already running server instead.
+ * Exits with status 2 when the run regresses against {@code --baseline=...}.
+ */
+public class LoadTestApplication {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestApplication.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load(args);
+
+        LoadReport report;
+        if (config.isLocalServer()) {
+            try (LocalConfigRepository repository = LocalConfigRepository.create(
+                         config.getApplications(), config.getProfiles(), config.getPropertiesPerApplication());
+                 VaultStub vault = VaultStub.start(config.getVaultSecretsPerPath(), config.getVaultLatencyMs());
+                 ConfigServerProcess server = ConfigServerProcess.start(config, repository, vault)) {
+                report = new LoadGenerator(config, server.getUrl(), repository.getApplicationNames()).run();
+                logger.info("Vault stub served {} reads", vault.getReads());
+            }
+        } else {
+            List<String> applications = LocalConfigRepository.applicationNames(config.getApplications());
+            report = new LoadGenerator(config, config.getTargetUrl(), applications).run();
+        }
+
+        report.print(System.out);
+        if (!config.getReport().isEmpty()) {
+            report.write(new File(config.getReport()));
+            logger.info("Report written to {}", config.getReport());
+        }
+
+        if (!config.getBaseline().isEmpty()) {
+            LoadReport baseline = LoadReport.read(new File(config.getBaseline()));
+            List<String> regressions = report.regressionsAgainst(baseline, config.getMaxP99RegressionPercent());
+            if (!regressions.isEmpty()) {
+                regressions.forEach(regression -> logger.error("Regression: {}", regression));
+                System.exit(2);
+            }
+            logger.info("No regression against {}", config.getBaseline());
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Settings for a load test run: {@code loadtest.properties} from the classpath,
+ * overridden by system properties and then by {@code --key=value} arguments.
+ */
+public class LoadTestConfig {
+    private final Properties properties = new Properties();
+
+    private LoadTestConfig() {
+    }
+
+    public static LoadTestConfig load(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        try (InputStream input = LoadTestConfig.class.getClassLoader()
+                .getResourceAsStream("loadtest.properties")) {
+            if (input != null) {
+                config.properties.load(input);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load loadtest properties", e);
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("loadtest."))
+                .forEach(name -> config.properties.setProperty(name, System.getProperty(name)));
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            config.properties.setProperty(key.startsWith("loadtest.") ? key : "loadtest." + key,
+                    arg.substring(arg.indexOf('=') + 1));
+        }
+        return config;
+    }
+
+    /**
+     * A copy of these settings with one of them replaced.
+     */
+    public LoadTestConfig with(String key, String value) {
+        LoadTestConfig copy = new LoadTestConfig();
+        copy.properties.putAll(properties);
+        copy.properties.setProperty(key, value);
+        return copy;
+    }
+
+    public String getTargetUrl() {
+        return properties.getProperty("loadtest.target.url", "").trim();
+    }
+
+    public boolean isLocalServer() {
+        return getTargetUrl().isEmpty();
+    }
+
+    public String getServerJar() {
+        return properties.getProperty("loadtest.server.jar");
+    }
+
+    public int getServerPort() {
+        return getInt("loadtest.server.port", 18081);
+    }
+
+    public List<String> getServerJvmArgs() {
+        return split(properties.getProperty("loadtest.server.jvm-args", ""), " ");
+    }
+
+    public int getServerStartupTimeoutSeconds() {
+        return getInt("loadtest.server.startup-timeout-seconds", 120);
+    }
+
+    /**
+     * {@code true} or {@code false} to start the server with
+     * {@code spring.threads.virtual.enabled} set; empty keeps the server's default.
+     */
+    public String getServerVirtualThreads() {
+        return properties.getProperty("loadtest.server.virtual-threads", "").trim();
+    }
+
+    /**
+     * Extra {@code --key=value} arguments for the server under test.
+     */
+    public List<String> getServerArgs() {
+        return split(properties.getProperty("loadtest.server.args", ""), " ");
+    }
+
+    public boolean isServerAdmissionEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("loadtest.server.admission", "false"));
+    }
+
+    public int getApplications() {
+        return getInt("loadtest.applications", 50);
+    }
+
+    public List<String> getProfiles() {
+        return split(properties.getProperty("loadtest.profiles", "default"), ",");
+    }
+
+    public int getPropertiesPerApplication() {
+        return getInt("loadtest.properties-per-application", 200);
+    }
+
+    public int getVaultSecretsPerPath() {
+        return getInt("loadtest.vault.secrets-per-path", 10);
+    }
+
+    public long getVaultLatencyMs() {
+        return getLong("loadtest.vault.latency-ms", 0);
+    }
+
+    public int getConcurrency() {
+        return getInt("loadtest.concurrency", 32);
+    }
+
+    public double getRate() {
+        return Double.parseDouble(properties.getProperty("loadtest.rate", "0"));
+    }
+
+    public long getWarmupSeconds() {
+        return getLong("loadtest.warmup-seconds", 10);
+    }
+
+    public long getDurationSeconds() {
+        return getLong("loadtest.duration-seconds", 60);
+    }
+
+    public double getCompleteRatio() {
+        return Double.parseDouble(properties.getProperty("loadtest.complete-ratio", "0.5"));
+    }
+
+    public String getDistribution() {
+        return properties.getProperty("loadtest.distribution", "zipf");
+    }
+
+    public double getZipfExponent() {
+        return Double.parseDouble(properties.getProperty("loadtest.zipf-exponent", "1.1"));
+    }
+
+    public long getRequestTimeoutMs() {
+        return getLong("loadtest.request-timeout-ms", 5000);
+    }
+
+    /**
+     * {@code server} runs the fleet against config-server (local or
+     * {@code loadtest.target.url}); {@code stub} against an in-process stand-in.
+     */
+    public String getFleetBackend() {
+        return properties.getProperty("loadtest.fleet.backend", "server");
+    }
+
+    public int getFleetClients() {
+        return getInt("loadtest.fleet.clients", 10000);
+    }
+
+    public long getFleetRampUpSeconds() {
+        return getLong("loadtest.fleet.ramp-up-seconds", 30);
+    }
+
+    public long getFleetRefreshIntervalMs() {
+        return getLong("loadtest.fleet.refresh-interval-ms", 30000);
+    }
+
+    public long getFleetDurationSeconds() {
+        return getLong("loadtest.fleet.duration-seconds", 300);
+    }
+
+    public long getFleetChangeIntervalSeconds() {
+        return getLong("loadtest.fleet.change-interval-seconds", 60);
+    }
+
+    public long getFleetSampleIntervalMs() {
+        return getLong("loadtest.fleet.sample-interval-ms", 250);
+    }
+
+    public long getStubLatencyMs() {
+        return getLong("loadtest.fleet.stub.latency-ms", 5);
+    }
+
+    public long getStubSlowdownAtSeconds() {
+        return getLong("loadtest.fleet.stub.slowdown-at-seconds", -1);
+    }
+
+    public long getStubSlowdownSeconds() {
+        return getLong("loadtest.fleet.stub.slowdown-seconds", 60);
+    }
+
+    public long getStubSlowdownLatencyMs() {
+        return getLong("loadtest.fleet.stub.slowdown-latency-ms", 2000);
+    }
+
+    /**
+     * Vault latency for {@link ThreadModelComparison}: long enough that the
+     * requests waiting on it outnumber Tomcat's 200 platform request threads.
+     */
+    public long getThreadsVaultLatencyMs() {
+        return getLong("loadtest.threads.vault-latency-ms", 3000);
+    }
+
+    /**
+     * Request rate for {@link ThreadModelComparison}; fixed, so both runs get the
+     * same load and queueing shows up as latency.
+     */
+    public double getThreadsRate() {
+        return Double.parseDouble(properties.getProperty("loadtest.threads.rate", "80"));
+    }
+
+    public int getThreadsConcurrency() {
+        return getInt("loadtest.threads.concurrency", 400);
+    }
+
+    public String getReport() {
+        return properties.getProperty("loadtest.report", "").trim();
+    }
+
+    public String getBaseline() {
+        return properties.getProperty("loadtest.baseline", "").trim();
+    }
+
+    public double getMaxP99RegressionPercent() {
+        return Double.parseDouble(properties.getProperty("loadtest.max-p99-regression-percent", "10"));
+    }
+
+    private int getInt(String key, int defaultValue) {
+        return Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+    }
+
+    private long getLong(String key, long defaultValue) {
+        return Long.parseLong(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+    }
+
+    private static List<String> split(String value, String separator) {
+        return Arrays.stream(value.split(separator))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.loadtest;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.transport.URIish;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A bare Git repository with generated configuration, laid out the way the
+ * server's {@code search-paths: config/{application}} expects: one base file per
+ * application plus a small override file per profile.
+ */
+public class LocalConfigRepository implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(LocalConfigRepository.class);
+
+    private static final int PROPERTIES_PER_GROUP = 20;
+
+    private final Path root;
+    private final Path workTree;
+    private final Path bareRepository;
+    private final List<String> applicationNames;
+
+    private LocalConfigRepository(Path root, Path workTree, Path bareRepository, List<String> applicationNames) {
+        this.root = root;
+        this.workTree = workTree;
+        this.bareRepository = bareRepository;
+        this.applicationNames = applicationNames;
+    }
+
+    public static LocalConfigRepository create(int applications, List<String> profiles, int propertiesPerApplication)
+            throws Exception {
+        Path root = Files.createTempDirectory("config-loadtest-");
+        Path workTree = root.resolve("work");
+        Path bare = root.resolve("config-repo.git");
+
+        List<String> names = applicationNames(applications);
+        try (Git git = Git.init().setDirectory(workTree.toFile()).setInitialBranch("main").call()) {
+            for (String application : names) {
+                Path directory = Files.createDirectories(workTree.resolve("config").resolve(application));
+                write(directory.resolve(application + ".yml"), baseProperties(application, propertiesPerApplication));
+                for (String profile : profiles) {
+                    write(directory.resolve(application + "-" + profile + ".yml"), profileProperties(application, profile));
+                }
+            }
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Generated load test configuration")
+                    .setAuthor("loadtest", "loadtest@localhost")
+                    .setCommitter("loadtest", "loadtest@localhost")
+                    .call();
+        }
+        Git.cloneRepository()
+                .setURI(workTree.toUri().toString())
+                .setDirectory(bare.toFile())
+                .setBare(true)
+                .call()
+                .close();
+        try (Git git = Git.open(workTree.toFile())) {
+            git.remoteAdd().setName("origin").setUri(new URIish(bare.toUri().toString())).call();
+        }
+
+        logger.info("Generated config repository with {} applications x {} profiles ({} properties each) at {}",
+                applications, profiles.size(), propertiesPerApplication, bare);
+        return new LocalConfigRepository(root, workTree, bare, names);
+    }
+
+    /**
+     * Names of the generated applications, also used when targeting a server
+     * that already serves a repository generated by an earlier run.
+     */
+    public static List<String> applicationNames(int applications) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < applications; i++) {
+            names.add(String.format("app-%03d", i));
+        }
+        return List.copyOf(names);
+    }
+
+    /**
+     * Commits a new {@code loadtest.revision} for the application and pushes it
+     * to the bare repository. Returns the new commit id, which is the version
+     * the server reports once it has fetched the change.
+     */
+    public synchronized String publishRevision(String application, long revision) throws Exception {
+        Path file = workTree.resolve("config").resolve(application).resolve(application + ".yml");
+        StringBuilder yaml = new StringBuilder();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.startsWith("loadtest.revision:")) {
+                yaml.append(line).append('\n');
+            }
+        }
+        yaml.append("loadtest.revision: ").append(revision).append('\n');
+        write(file, yaml.toString());
+
+        try (Git git = Git.open(workTree.toFile())) {
+            git.add().addFilepattern(".").call();
+            String commit = git.commit().setMessage("Revision " + revision)
+                    .setAuthor("loadtest", "loadtest@localhost")
+                    .setCommitter("loadtest", "loadtest@localhost")
+                    .call()
+                    .getName();
+            git.push().setRemote("origin").call();
+            return commit;
+        }
+    }
+
+    /**
+     * A plain path rather than a {@code file:} URI: config-server reads
+     * {@code file:} repositories in place, which does not work for a bare one,
+     * but clones from a path like from any remote.
+     */
+    public String getUri() {
+        return bareRepository.toAbsolutePath().toString();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public List<String> getApplicationNames() {
+        return applicationNames;
+    }
+
+    private static String baseProperties(String application, int count) {
+        StringBuilder yaml = new StringBuilder(count * 48);
+        for (int i = 0; i < count; i++) {
+            yaml.append("group-").append(i / PROPERTIES_PER_GROUP)
+                    .append(".key-").append(i % PROPERTIES_PER_GROUP)
+                    .append(": \"").append(application).append("-value-").append(i).append("\"\n");
+        }
+        return yaml.toString();
+    }
+
+    private static String profileProperties(String application, String profile) {
+        return "group-0.key-0: \"" + application + "-" + profile + "\"\n"
+                + "profile.name: \"" + profile + "\"\n";
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", root, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows which config version every simulated client holds. From periodic
+ * samples it derives, per published version, how long the fleet took to pick
+ * it up (propagation), and across the run how far behind clients were
+ * (staleness: time since the first version they are missing was published).
+ * Resolution is the sample interval.
+ */
+public class PropagationTracker {
+    private static final long MAX_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final List<String> versions = new ArrayList<>();
+    private final List<Long> publishedAt = new ArrayList<>();
+    private final List<Histogram> propagation = new ArrayList<>();
+    private final Map<String, Integer> index = new HashMap<>();
+    private final int[] seen;
+    private final Histogram staleness = new Histogram(MAX_MILLIS, 3);
+    private long samples;
+    private long staleSamples;
+    private long missingSamples;
+
+    public PropagationTracker(int clients) {
+        this.seen = new int[clients];
+        Arrays.fill(seen, -1);
+    }
+
+    public synchronized boolean isKnown(String version) {
+        return index.containsKey(version);
+    }
+
+    public synchronized void published(String version, long nanos) {
+        if (index.containsKey(version)) {
+            return;
+        }
+        index.put(version, versions.size());
+        versions.add(version);
+        publishedAt.add(nanos);
+        propagation.add(new Histogram(MAX_MILLIS, 3));
+    }
+
+    public synchronized void sample(int client, String heldVersion, long now) {
+        samples++;
+        Integer held = heldVersion != null ? index.get(heldVersion) : null;
+        if (held == null) {
+            missingSamples++;
+            return;
+        }
+        for (int change = seen[client] + 1; change <= held; change++) {
+            // The initial version was there before the clients started
+            if (change > 0) {
+                propagation.get(change).recordValue(millis(now - publishedAt.get(change)));
+            }
+        }
+        seen[client] = Math.max(seen[client], held);
+
+        int latest = versions.size() - 1;
+        if (held < latest) {
+            staleSamples++;
+            staleness.recordValue(millis(now - publishedAt.get(held + 1)));
+        }
+    }
+
+    public synchronized void print(PrintStream out, int clients) {
+        out.println();
+        out.println("Propagation (time from publish until a client held the version)");
+        out.printf(Locale.ROOT, "%-42s %10s %9s %9s %9s%n", "version", "converged", "p50 ms", "p99 ms", "max ms");
+        for (int change = 1; change < versions.size(); change++) {
+            Histogram histogram = propagation.get(change);
+            out.printf(Locale.ROOT, "%-42s %9.1f%% %9d %9d %9d%n", versions.get(change),
+                    100d * histogram.getTotalCount() / clients, histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(99), histogram.getMaxValue());
+        }
+
+        out.println();
+        out.printf(Locale.ROOT, "Staleness: %d samples, %.2f%% behind the latest version, %.2f%% without a known version%n",
+                samples, percent(staleSamples), percent(missingSamples));
+        if (staleSamples > 0) {
+            out.printf(Locale.ROOT, "  behind by p50 %d ms, p90 %d ms, p99 %d ms, max %d ms%n",
+                    staleness.getValueAtPercentile(50), staleness.getValueAtPercentile(90),
+                    staleness.getValueAtPercentile(99), staleness.getMaxValue());
+        }
+        out.println();
+    }
+
+    private double percent(long count) {
+        return samples > 0 ? 100d * count / samples : 0;
+    }
+
+    private static long millis(long nanos) {
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMillis(nanos), 0), MAX_MILLIS);
+    }
+}
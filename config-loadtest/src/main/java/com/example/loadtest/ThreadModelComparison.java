@@ -0,0 +1,92 @@
+package com.example.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the same load twice against a local config-server whose Vault backend
+ * is slow: once with request handling on platform threads, once on virtual
+ * threads ({@code spring.threads.virtual.enabled}), and prints both results
+ * side by side.
+ * <p>
+ * The server's secrets cache would otherwise absorb the Vault latency after the
+ * first read, so it is disabled for both runs and every {@code /complete} build
+ * waits on Vault. The rate is fixed and chosen so that more requests wait on
+ * Vault at once than Tomcat has platform threads: the platform run queues
+ * behind the sleeping threads, the virtual run does not. Throughput is the
+ * same in both runs; the difference shows in the latencies.
+ */
+public class ThreadModelComparison {
+    private static final Logger logger = LoggerFactory.getLogger(ThreadModelComparison.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load(args);
+        if (!config.isLocalServer()) {
+            throw new IllegalStateException("The thread model is fixed when the server starts; "
+                    + "the comparison needs a local server (leave loadtest.target.url empty)");
+        }
+        // Only /complete reads Vault; waits of several times the Vault latency must
+        // be measured, not cut off
+        config = config
+                .with("loadtest.vault.latency-ms", String.valueOf(config.getThreadsVaultLatencyMs()))
+                .with("loadtest.rate", String.valueOf(config.getThreadsRate()))
+                .with("loadtest.concurrency", String.valueOf(config.getThreadsConcurrency()))
+                .with("loadtest.complete-ratio", "1")
+                .with("loadtest.request-timeout-ms", String.valueOf(Math.max(config.getRequestTimeoutMs(),
+                        20 * config.getThreadsVaultLatencyMs())))
+                .with("loadtest.server.args", String.join(" ", config.getServerArgs())
+                        + " --config.integration.vault.max-entries=0");
+
+        Map<String, LoadReport> reports = new LinkedHashMap<>();
+        try (LocalConfigRepository repository = LocalConfigRepository.create(
+                     config.getApplications(), config.getProfiles(), config.getPropertiesPerApplication());
+             VaultStub vault = VaultStub.start(config.getVaultSecretsPerPath(), config.getVaultLatencyMs())) {
+            for (String mode : List.of("platform", "virtual")) {
+                LoadTestConfig run = config.with("loadtest.server.virtual-threads", String.valueOf(mode.equals("virtual")));
+                logger.info("Running on {} threads: {} req/s, Vault latency {} ms",
+                        mode, run.getRate(), run.getVaultLatencyMs());
+                long readsBefore = vault.getReads();
+                try (ConfigServerProcess server = ConfigServerProcess.start(run, repository, vault)) {
+                    LoadReport report = new LoadGenerator(run, server.getUrl(), repository.getApplicationNames()).run();
+                    reports.put(mode, report);
+                }
+                logger.info("Vault stub served {} reads on {} threads", vault.getReads() - readsBefore, mode);
+            }
+        }
+
+        reports.forEach((mode, report) -> {
+            System.out.println(mode + " threads:");
+            report.print(System.out);
+        });
+        printComparison(reports.get("platform"), reports.get("virtual"), System.out);
+
+        if (!config.getReport().isEmpty()) {
+            for (Map.Entry<String, LoadReport> entry : reports.entrySet()) {
+                File file = new File(config.getReport().replaceFirst("(\\.json)?$", "-" + entry.getKey() + ".json"));
+                entry.getValue().write(file);
+                logger.info("Report written to {}", file);
+            }
+        }
+    }
+
+    private static void printComparison(LoadReport platform, LoadReport virtual, PrintStream out) {
+        out.printf(Locale.ROOT, "%-12s %14s %14s %12s %12s %12s %12s%n", "endpoint", "platform req/s",
+                "virtual req/s", "platform p50", "virtual p50", "platform p99", "virtual p99");
+        platform.getEndpoints().forEach((name, before) -> {
+            EndpointStats after = virtual.getEndpoints().get(name);
+            if (after != null) {
+                out.printf(Locale.ROOT, "%-12s %14.1f %14.1f %12.2f %12.2f %12.2f %12.2f%n", name,
+                        before.getThroughput(), after.getThroughput(), before.getP50(), after.getP50(),
+                        before.getP99(), after.getP99());
+            }
+        });
+        out.println();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for Vault's KV v2 read API. Every {@code GET /v1/...} is
+ * answered with a fixed set of secrets derived from the path, optionally after
+ * a simulated backend latency.
+ */
+public class VaultStub implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(VaultStub.class);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int secretsPerPath;
+    private final long latencyMs;
+    private final AtomicLong reads = new AtomicLong();
+
+    private VaultStub(HttpServer server, ExecutorService executor, int secretsPerPath, long latencyMs) {
+        this.server = server;
+        this.executor = executor;
+        this.secretsPerPath = secretsPerPath;
+        this.latencyMs = latencyMs;
+    }
+
+    public static VaultStub start(int secretsPerPath, long latencyMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        ExecutorService executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "vault-stub");
+            t.setDaemon(true);
+            return t;
+        });
+        VaultStub stub = new VaultStub(server, executor, secretsPerPath, latencyMs);
+        server.createContext("/v1/", stub::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Vault stub listening on {}", stub.getAddress());
+        return stub;
+    }
+
+    public String getAddress() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getReads() {
+        return reads.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            reads.incrementAndGet();
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs);
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            Map<String, Object> secrets = new LinkedHashMap<>();
+            for (int i = 0; i < secretsPerPath; i++) {
+                secrets.put("secret-" + i, Integer.toHexString((path + i).hashCode()));
+            }
+            Map<String, Object> body = Map.of(
+                    "data", Map.of("data", secrets, "metadata", Map.of("version", 1)),
+                    "lease_duration", 0,
+                    "renewable", false);
+
+            byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.configrefresh;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Holds configuration bound into an immutable snapshot and swaps it when the
+ * environment changes. Replaces {@code @RefreshScope} for values read on the
+ * request path: readers get the current snapshot with a single volatile read,
+ * there is no scoped proxy, and a refresh binds one new object instead of
+ * destroying and recreating beans.
+ * <p>
+ * Only changes to keys under the holder's prefixes trigger a rebind; a request
+ * sees either the old snapshot or the new one, never a mix of both.
+ */
+public class ConfigSnapshotHolder<T> implements ApplicationListener<EnvironmentChangeEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshotHolder.class);
+
+    private final Environment environment;
+    private final Set<String> prefixes;
+    private final Function<Environment, T> binder;
+    private final AtomicReference<T> current;
+
+    public ConfigSnapshotHolder(Environment environment, Set<String> prefixes, Function<Environment, T> binder) {
+        this.environment = environment;
+        this.prefixes = Set.copyOf(prefixes);
+        this.binder = binder;
+        this.current = new AtomicReference<>(binder.apply(environment));
+    }
+
+    public T get() {
+        return current.get();
+    }
+
+    /**
+     * Binds a new snapshot from the environment and publishes it.
+     */
+    public T rebind() {
+        T snapshot = binder.apply(environment);
+        T previous = current.getAndSet(snapshot);
+        logger.debug("Rebound {} -> {}", previous, snapshot);
+        return snapshot;
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(this::dependsOn)) {
+            rebind();
+        }
+    }
+
+    public boolean dependsOn(String key) {
+        String normalized = RefreshDependencyIndex.canonical(key);
+        return prefixes.stream().anyMatch(prefix -> key.startsWith(prefix) || normalized.startsWith(prefix));
+    }
+}
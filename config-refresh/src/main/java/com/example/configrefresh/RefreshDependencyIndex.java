@@ -0,0 +1,218 @@
+package com.example.configrefresh;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Which refresh-scoped beans depend on which property keys, worked out from the
+ * {@code @Value} placeholders on their fields, methods and constructor (or
+ * factory method) parameters.
+ * <p>
+ * Lookups go from each changed key up through its parents ({@code a.b[0]},
+ * {@code a.b}, {@code a}), so their cost depends on the size of the change, not
+ * on the number of beans. Beans whose dependencies cannot be read off their
+ * annotations (SpEL expressions, or no {@code @Value} at all, e.g. beans that
+ * read the {@code Environment} themselves) are refreshed on every change.
+ */
+public class RefreshDependencyIndex {
+
+    // Scope name RefreshScope registers itself under
+    private static final String REFRESH_SCOPE = "refresh";
+
+    private final Map<String, Set<String>> beansByKey = new HashMap<>();
+    private final Set<String> unconditional = new LinkedHashSet<>();
+    private final int beanCount;
+    private final int definitionCount;
+
+    public RefreshDependencyIndex(ConfigurableListableBeanFactory beanFactory) {
+        this.definitionCount = beanFactory.getBeanDefinitionCount();
+        int count = 0;
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+            if (!REFRESH_SCOPE.equals(definition.getScope())) {
+                continue;
+            }
+            count++;
+            Set<String> keys = dependencies(beanFactory, beanName, definition);
+            if (keys == null || keys.isEmpty()) {
+                unconditional.add(beanName);
+            } else {
+                keys.forEach(key -> beansByKey.computeIfAbsent(canonical(key), k -> new HashSet<>()).add(beanName));
+            }
+        }
+        this.beanCount = count;
+    }
+
+    /**
+     * Names of the beans to refresh for the given changed keys; empty when
+     * nothing changed.
+     */
+    public Set<String> beansAffectedBy(Collection<String> changedKeys) {
+        Set<String> affected = new LinkedHashSet<>();
+        if (changedKeys.isEmpty()) {
+            return affected;
+        }
+        affected.addAll(unconditional);
+        for (String changedKey : changedKeys) {
+            String key = canonical(changedKey);
+            while (!key.isEmpty()) {
+                Set<String> beans = beansByKey.get(key);
+                if (beans != null) {
+                    affected.addAll(beans);
+                }
+                key = parent(key);
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Whether the index was built from the factory's current set of bean
+     * definitions, judged by their number.
+     */
+    public boolean isCurrent(ConfigurableListableBeanFactory beanFactory) {
+        return beanFactory.getBeanDefinitionCount() == definitionCount;
+    }
+
+    public int getBeanCount() {
+        return beanCount;
+    }
+
+    // null when the bean has dependencies that cannot be determined
+    private static Set<String> dependencies(ConfigurableListableBeanFactory beanFactory, String beanName,
+                                            BeanDefinition definition) {
+        Set<String> keys = new HashSet<>();
+        if (definition.getFactoryMethodName() != null) {
+            Method factoryMethod = factoryMethod(beanFactory, definition);
+            if (factoryMethod == null || !addParameterKeys(factoryMethod, keys)) {
+                return null;
+            }
+        }
+
+        Class<?> beanClass = beanFactory.getType(beanName);
+        if (beanClass == null) {
+            return null;
+        }
+        beanClass = ClassUtils.getUserClass(beanClass);
+
+        boolean[] resolvable = {true};
+        ReflectionUtils.doWithFields(beanClass, field -> resolvable[0] &= addKeys(field, keys));
+        ReflectionUtils.doWithMethods(beanClass, method -> resolvable[0] &= addKeys(method, keys)
+            && addParameterKeys(method, keys));
+        for (Constructor<?> constructor : beanClass.getDeclaredConstructors()) {
+            resolvable[0] &= addParameterKeys(constructor, keys);
+        }
+        return resolvable[0] ? keys : null;
+    }
+
+    // Refresh-scoped beans are created lazily, so the factory method is usually
+    // not resolved yet; it is looked up by name unless it is overloaded.
+    private static Method factoryMethod(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        if (definition instanceof RootBeanDefinition) {
+            Method resolved = ((RootBeanDefinition) definition).getResolvedFactoryMethod();
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+        Class<?> factoryClass = definition.getFactoryBeanName() != null
+            ? beanFactory.getType(definition.getFactoryBeanName())
+            : ClassUtils.resolveClassName(definition.getBeanClassName(), beanFactory.getBeanClassLoader());
+        if (factoryClass == null) {
+            return null;
+        }
+        Method candidate = null;
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(ClassUtils.getUserClass(factoryClass))) {
+            if (method.getName().equals(definition.getFactoryMethodName())) {
+                if (candidate != null) {
+                    return null;
+                }
+                candidate = method;
+            }
+        }
+        return candidate;
+    }
+
+    private static boolean addParameterKeys(Executable executable, Set<String> keys) {
+        boolean resolvable = true;
+        for (Parameter parameter : executable.getParameters()) {
+            resolvable &= addKeys(parameter, keys);
+        }
+        return resolvable;
+    }
+
+    private static boolean addKeys(AnnotatedElement element, Set<String> keys) {
+        Value value = AnnotatedElementUtils.findMergedAnnotation(element, Value.class);
+        return value == null || placeholderKeys(value.value(), keys);
+    }
+
+    /**
+     * Adds the keys of the {@code ${...}} placeholders in the expression,
+     * including those nested in defaults. Returns {@code false} for SpEL, whose
+     * dependencies cannot be known up front.
+     */
+    static boolean placeholderKeys(String expression, Set<String> keys) {
+        if (expression.contains("#{")) {
+            return false;
+        }
+        int start = expression.indexOf("${");
+        while (start >= 0) {
+            int end = closingBrace(expression, start + 2);
+            if (end < 0) {
+                return true;
+            }
+            String placeholder = expression.substring(start + 2, end);
+            int separator = placeholder.indexOf(':');
+            String key = separator >= 0 ? placeholder.substring(0, separator) : placeholder;
+            if (key.contains("${")) {
+                return false;
+            }
+            keys.add(key.trim());
+            if (separator >= 0 && !placeholderKeys(placeholder.substring(separator + 1), keys)) {
+                return false;
+            }
+            start = expression.indexOf("${", end + 1);
+        }
+        return true;
+    }
+
+    private static int closingBrace(String expression, int from) {
+        int depth = 1;
+        for (int i = from; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Relaxed form, so that e.g. APP_NAME and app.name meet
+    static String canonical(String key) {
+        return key.toLowerCase(Locale.ROOT).replace('_', '.').replace("-", "");
+    }
+
+    private static String parent(String key) {
+        int cut = Math.max(key.lastIndexOf('.'), key.lastIndexOf('['));
+        return cut > 0 ? key.substring(0, cut) : "";
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.configrefresh;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.cloud.context.refresh.LegacyContextRefresher;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Set;
+
+/**
+ * Context refresher that, once the environment has been reloaded, refreshes only
+ * the refresh-scoped beans whose property keys are among the changed ones,
+ * instead of every bean in the scope. A refresh that changes nothing leaves
+ * every bean in place.
+ * <p>
+ * Extends the bootstrap-mode refresher the services run with
+ * ({@code spring-cloud-starter-bootstrap}), so the autoconfigured one backs off.
+ */
+public class SelectiveContextRefresher extends LegacyContextRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SelectiveContextRefresher.class);
+
+    private RefreshDependencyIndex index;
+
+    public SelectiveContextRefresher(ConfigurableApplicationContext context, RefreshScope scope,
+                                     RefreshAutoConfiguration.RefreshProperties properties) {
+        super(context, scope, properties);
+    }
+
+    @Override
+    public synchronized Set<String> refresh() {
+        Set<String> keys = refreshEnvironment();
+        refreshBeans(keys);
+        return keys;
+    }
+
+    /**
+     * Refreshes the beans that depend on any of the changed keys and returns
+     * their names.
+     */
+    public Set<String> refreshBeans(Set<String> changedKeys) {
+        RefreshDependencyIndex dependencies = index();
+        Set<String> affected = dependencies.beansAffectedBy(changedKeys);
+        for (String beanName : affected) {
+            getScope().refresh(beanName);
+        }
+        logger.info("Refreshed {} of {} refresh-scoped beans for {} changed keys",
+            affected.size(), dependencies.getBeanCount(), changedKeys.size());
+        return affected;
+    }
+
+    // Built on first use, once every bean definition is registered, and again
+    // whenever definitions have been added or removed since
+    private synchronized RefreshDependencyIndex index() {
+        ConfigurableListableBeanFactory beanFactory = getContext().getBeanFactory();
+        if (index == null || !index.isCurrent(beanFactory)) {
+            index = new RefreshDependencyIndex(beanFactory);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.configrefresh;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Replaces the bootstrap-mode context refresher with a
+ * {@link SelectiveContextRefresher}. Runs ahead of
+ * {@link RefreshAutoConfiguration}, whose own refresher backs off once this one
+ * is registered.
+ */
+@AutoConfiguration(before = RefreshAutoConfiguration.class)
+public class SelectiveRefreshAutoConfiguration {
+
+    @Bean
+    public SelectiveContextRefresher contextRefresher(ConfigurableApplicationContext context, RefreshScope scope,
+                                                      RefreshAutoConfiguration.RefreshProperties properties) {
+        return new SelectiveContextRefresher(context, scope, properties);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.configrefresh;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Refreshes a context holding refresh-scoped beans with known {@code @Value}
+ * dependencies and checks which of them are recreated.
+ */
+class SelectiveContextRefresherTest {
+
+    private AnnotationConfigApplicationContext context;
+    private SelectiveContextRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean("refreshScope", org.springframework.cloud.context.scope.refresh.RefreshScope.class);
+        context.registerBean("greeting", Greeting.class);
+        context.registerBean("timeouts", Timeouts.class);
+        context.registerBean("environmentReader", EnvironmentReader.class);
+        context.refresh();
+        refresher = new SelectiveContextRefresher(context, context.getBean("refreshScope",
+            org.springframework.cloud.context.scope.refresh.RefreshScope.class), new RefreshAutoConfiguration.RefreshProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void refreshesOnlyTheBeansThatReadAChangedKey() {
+        Object greeting = target("greeting");
+        Object timeouts = target("timeouts");
+
+        Set<String> refreshed = refresher.refreshBeans(Set.of("app.greeting"));
+
+        assertThat(refreshed).containsExactlyInAnyOrder("scopedTarget.greeting", "scopedTarget.environmentReader");
+        assertThat(target("greeting")).isNotSameAs(greeting);
+        assertThat(target("timeouts")).isSameAs(timeouts);
+    }
+
+    @Test
+    void matchesKeysInTheirRelaxedForms() {
+        assertThat(refresher.refreshBeans(Set.of("APP_GREETING"))).contains("scopedTarget.greeting");
+        assertThat(refresher.refreshBeans(Set.of("app.timeout"))).contains("scopedTarget.timeouts");
+        assertThat(refresher.refreshBeans(Set.of("APP_READTIMEOUT"))).contains("scopedTarget.timeouts");
+        assertThat(refresher.refreshBeans(Set.of("app.readTimeout"))).contains("scopedTarget.timeouts");
+    }
+
+    @Test
+    void refreshesBeansThatReadAParentOfTheChangedKey() {
+        assertThat(refresher.refreshBeans(Set.of("app.greeting.suffix", "app.greeting[0]")))
+            .containsExactlyInAnyOrder("scopedTarget.greeting", "scopedTarget.environmentReader");
+    }
+
+    @Test
+    void leavesEveryBeanInPlaceWhenNothingChanged() {
+        Object greeting = target("greeting");
+        Object reader = target("environmentReader");
+
+        assertThat(refresher.refreshBeans(Set.of())).isEmpty();
+        assertThat(target("greeting")).isSameAs(greeting);
+        assertThat(target("environmentReader")).isSameAs(reader);
+    }
+
+    @Test
+    void picksUpBeansRegisteredAfterTheFirstRefresh() {
+        refresher.refreshBeans(Set.of("app.greeting"));
+
+        context.registerBean("scopedTarget.late", Late.class, definition -> definition.setScope("refresh"));
+
+        assertThat(refresher.refreshBeans(Set.of("app.late"))).contains("scopedTarget.late");
+    }
+
+    private Object target(String name) {
+        return context.getBean("scopedTarget." + name);
+    }
+
+    @RefreshScope
+    static class Greeting {
+
+        @Value("${app.greeting:hello}")
+        String greeting;
+    }
+
+    @RefreshScope
+    static class Timeouts {
+
+        final int connectTimeout;
+
+        @Value("${app.read-timeout:5}")
+        int readTimeout;
+
+        Timeouts(@Value("${app.time-out:${app.connect-timeout:1}}") int connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+    }
+
+    // No @Value, so it is refreshed on every change
+    @RefreshScope
+    static class EnvironmentReader {
+    }
+
+    static class Late {
+
+        @Value("${app.late:0}")
+        int late;
+    }
+}
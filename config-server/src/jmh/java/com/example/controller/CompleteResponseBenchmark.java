@@ -0,0 +1,95 @@
+package com.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding a {@code /complete} body: a full serialization (JSON, gzip, ETag) as
+ * done on a response cache miss, against a cache hit for the same version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompleteResponseBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    private int properties;
+
+    private AnnotationConfigApplicationContext context;
+    private SerializedResponseCache responseCache;
+    private Map<String, Object> body;
+    private List<Object> version;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(ObjectMapper.class, () -> Jackson2ObjectMapperBuilder.json().build());
+        context.register(SerializedResponseCache.class);
+        context.refresh();
+        responseCache = context.getBean(SerializedResponseCache.class);
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        for (int i = 0; i < properties; i++) {
+            config.put("bench.group-" + (i % 20) + ".property-" + i, i % 3 == 0 ? i : "value-" + i);
+        }
+        Map<String, Boolean> features = new HashMap<>();
+        for (int i = 0; i < 16; i++) {
+            features.put("bench.flag-" + i, i % 2 == 0);
+        }
+        Map<String, Object> secrets = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            secrets.put("bench.secret-" + i, "s3cr3t-" + i);
+        }
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("application", "bench");
+        metadata.put("profile", "prod");
+        metadata.put("label", "main");
+        metadata.put("version", "0123abcd");
+        metadata.put("timestamp", System.currentTimeMillis());
+
+        body = new HashMap<>();
+        body.put("config", config);
+        body.put("features", features);
+        body.put("secrets", secrets);
+        body.put("metadata", metadata);
+        version = List.of("0123abcd", features, secrets);
+        responseCache.json("complete|bench", version, () -> body);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SerializedResponseCache.Representation serialize() {
+        return responseCache.json(body);
+    }
+
+    @Benchmark
+    public SerializedResponseCache.Representation cached() {
+        return responseCache.json("complete|bench", version, () -> body);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Secret masking in {@link ComprehensiveConfigController#testVaultConnection},
+ * including the fallback values it reports as not loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaskSecretBenchmark {
+
+    @Param({"vault-16", "vault-64", "fallback"})
+    private String kind;
+
+    private ComprehensiveConfigController controller;
+
+    @Setup
+    public void setUp() {
+        String secret;
+        switch (kind) {
+            case "fallback":
+                secret = "FALLBACK-DB-PASSWORD";
+                break;
+            case "vault-64":
+                secret = "s.".repeat(32);
+                break;
+            default:
+                secret = "s3cr3t-p4ssw0rd!";
+        }
+        controller = new ComprehensiveConfigController(new StandardEnvironment());
+        ReflectionTestUtils.setField(controller, "dbUsername", "bench");
+        ReflectionTestUtils.setField(controller, "dbPassword", secret);
+    }
+
+    @Benchmark
+    public Map<String, Object> testVaultConnection() {
+        return controller.testVaultConnection();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.integration;
+
+import com.example.metrics.BackendCalls;
+import io.getunleash.FakeUnleash;
+import io.getunleash.Unleash;
+import io.getunleash.UnleashContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flag lookups for one application: the precompiled snapshot that
+ * {@code /complete} reads, against evaluating the Unleash strategies per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureFlagsBenchmark {
+
+    private static final String APPLICATION = "bench";
+
+    @Param({"8", "64"})
+    private int flags;
+
+    private AnnotationConfigApplicationContext context;
+    private UnleashIntegration integration;
+    private List<String> featureNames;
+    private UnleashContext unleashContext;
+
+    @Setup
+    public void setUp() {
+        featureNames = new ArrayList<>();
+        Map<String, Object> properties = new HashMap<>();
+        FakeUnleash unleash = new FakeUnleash();
+        for (int i = 0; i < flags; i++) {
+            String featureName = APPLICATION + ".flag-" + i;
+            featureNames.add(featureName);
+            properties.put(FeatureFlagRegistry.PROPERTY_PREFIX + ".applications." + APPLICATION + "[" + i + "]",
+                featureName);
+            if (i % 2 == 0) {
+                unleash.enable(featureName);
+            }
+        }
+
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("bench", properties));
+
+        context = new AnnotationConfigApplicationContext();
+        context.setEnvironment(environment);
+        context.registerBean(Unleash.class, () -> unleash);
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.register(BackendCalls.class, FeatureFlagRegistry.class, FeatureFlagSnapshotManager.class, UnleashIntegration.class);
+        context.refresh();
+        context.getBean(FeatureFlagSnapshotManager.class).rebuild();
+
+        integration = context.getBean(UnleashIntegration.class);
+        unleashContext = UnleashContext.builder().userId("bench-user").build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Boolean> snapshot() {
+        return integration.getFeatureFlags(APPLICATION, "prod");
+    }
+
+    @Benchmark
+    public Map<String, Boolean> evaluate() {
+        return integration.evaluate(featureNames, unleashContext);
+    }
+}
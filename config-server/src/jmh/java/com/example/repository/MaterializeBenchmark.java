@@ -0,0 +1,59 @@
+package com.example.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The property source flatten loop behind {@code /complete}
+ * ({@link MaterializedEnvironmentRepository#materialize}). Each source overrides
+ * half of the keys of the next one, as profile files override the base file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaterializeBenchmark {
+
+    @Param({"1", "4"})
+    private int sources;
+
+    @Param({"100", "1000"})
+    private int propertiesPerSource;
+
+    private Environment environment;
+
+    @Setup
+    public void setUp() {
+        environment = new Environment("bench", new String[] {"prod"}, "main", "0123abcd", null);
+        for (int source = 0; source < sources; source++) {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            for (int i = 0; i < propertiesPerSource; i++) {
+                int key = source * propertiesPerSource / 2 + i;
+                properties.put("group-" + key / 20 + ".key-" + key % 20, "value-" + source + "-" + i);
+            }
+            environment.add(new PropertySource("config/bench/bench-" + source + ".yml", properties));
+        }
+    }
+
+    @Benchmark
+    public MaterializedEnvironment materialize() {
+        return MaterializedEnvironmentRepository.materialize("bench", "prod", "main", environment);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Secret masking in {@link ConfigService#getConfigFromVault}, which masks the
+ * database password and the API key on each call, for secrets of typical
+ * lengths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaskSecretBenchmark {
+
+    @Param({"4", "16", "64"})
+    private int length;
+
+    private ConfigService configService;
+
+    @Setup
+    public void setUp() {
+        StringBuilder value = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            value.append((char) ('a' + i % 26));
+        }
+        configService = new ConfigService();
+        ReflectionTestUtils.setField(configService, "vaultEnabled", true);
+        ReflectionTestUtils.setField(configService, "dbUsername", "bench");
+        ReflectionTestUtils.setField(configService, "dbPassword", value.toString());
+        ReflectionTestUtils.setField(configService, "apiKey", value.toString());
+        ReflectionTestUtils.setField(configService, "externalServiceUrl", "https://api.bench");
+    }
+
+    @Benchmark
+    public Map<String, String> getConfigFromVault() {
+        return configService.getConfigFromVault();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.config;
+
+import com.example.metrics.BackendCalls;
+import com.example.repository.CachingEnvironmentRepository;
+import com.example.repository.EnvironmentCacheEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.config.server.environment.CompositeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wraps every search-path based (Git) environment repository in a
+ * {@link CachingEnvironmentRepository} before the composite repository collects
+ * them, so the standard endpoints and {@code CustomConfigController} share the cache.
+ */
+@Configuration
+@ConditionalOnProperty(name = "config.environment-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class EnvironmentCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnvironmentCacheConfig.class);
+
+    @Bean
+    public static CachingRepositoryPostProcessor cachingEnvironmentRepositoryPostProcessor(
+            Environment environment, ObjectProvider<BackendCalls> backendCalls) {
+        int maxEntries = environment.getProperty("config.environment-cache.max-entries", Integer.class, 1024);
+        return new CachingRepositoryPostProcessor(maxEntries, backendCalls);
+    }
+
+    @Bean
+    public EnvironmentCacheEndpoint environmentCacheEndpoint(CachingRepositoryPostProcessor postProcessor) {
+        return new EnvironmentCacheEndpoint(postProcessor.getRepositories());
+    }
+
+    /**
+     * Wraps the repositories and keeps track of the wrappers it created, for the
+     * actuator endpoint of the same context.
+     */
+    static final class CachingRepositoryPostProcessor implements BeanPostProcessor {
+
+        private final int maxEntries;
+        // Resolved when the first repository is wrapped, not when post processors are created
+        private final ObjectProvider<BackendCalls> backendCalls;
+        private final List<CachingEnvironmentRepository> repositories = new CopyOnWriteArrayList<>();
+
+        CachingRepositoryPostProcessor(int maxEntries, ObjectProvider<BackendCalls> backendCalls) {
+            this.maxEntries = maxEntries;
+            this.backendCalls = backendCalls;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof EnvironmentRepository && bean instanceof SearchPathLocator
+                    && !(bean instanceof CompositeEnvironmentRepository)
+                    && !(bean instanceof CachingEnvironmentRepository)) {
+                CachingEnvironmentRepository caching = wrap(bean, maxEntries, backendCalls.getObject());
+                repositories.add(caching);
+                logger.info("Caching parsed environments of '{}' by commit id (max {} entries)", beanName, maxEntries);
+                return caching;
+            }
+            return bean;
+        }
+
+        List<CachingEnvironmentRepository> getRepositories() {
+            return repositories;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends EnvironmentRepository & SearchPathLocator> CachingEnvironmentRepository wrap(
+            Object bean, int maxEntries, BackendCalls backendCalls) {
+        return new CachingEnvironmentRepository((T) bean, maxEntries, backendCalls);
+    }
+}
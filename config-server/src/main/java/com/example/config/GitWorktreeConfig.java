@@ -0,0 +1,74 @@
+package com.example.config;
+
+import com.example.repository.WorktreeEnvironmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.config.server.environment.JGitEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.MultipleJGitEnvironmentRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Serves the Git environment repository from per-label worktrees instead of its
+ * shared working copy. Runs before {@link EnvironmentCacheConfig}, so the cache
+ * wraps the worktree repository and keys on the commit it resolves.
+ * <p>
+ * Worktrees are read from the remote-tracking refs that {@code GitMirrorManager}
+ * keeps up to date, so they are only used while the mirror is enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "config.worktrees.enabled", havingValue = "true", matchIfMissing = true)
+public class GitWorktreeConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitWorktreeConfig.class);
+
+    // Declared with its concrete type: the container sorts post-processors by the
+    // type it can see before instantiating them, and PriorityOrdered ones are
+    // registered ahead of all others, including the caching post-processor.
+    @Bean
+    public static WorktreePostProcessor worktreeEnvironmentRepositoryPostProcessor(Environment environment) {
+        int maxLabels = environment.getProperty("config.worktrees.max-labels", Integer.class, 16);
+        // Same default as GitMirrorManager's condition
+        boolean mirrorEnabled = environment.getProperty("config.git-mirror.enabled", Boolean.class, true);
+        return new WorktreePostProcessor(maxLabels, mirrorEnabled);
+    }
+
+    static final class WorktreePostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        private final int maxLabels;
+        private final boolean mirrorEnabled;
+
+        WorktreePostProcessor(int maxLabels, boolean mirrorEnabled) {
+            this.maxLabels = maxLabels;
+            this.mirrorEnabled = mirrorEnabled;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof JGitEnvironmentRepository)) {
+                return bean;
+            }
+            if (!mirrorEnabled) {
+                logger.info("Not using worktrees for '{}': config.git-mirror.enabled is off", beanName);
+                return bean;
+            }
+            if (bean instanceof MultipleJGitEnvironmentRepository
+                    && !((MultipleJGitEnvironmentRepository) bean).getRepos().isEmpty()) {
+                logger.info("Not using worktrees for '{}': pattern-matched repositories are configured", beanName);
+                return bean;
+            }
+            logger.info("Serving '{}' from per-label worktrees (max {} labels)", beanName, maxLabels);
+            return new WorktreeEnvironmentRepository((JGitEnvironmentRepository) bean, maxLabels);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.config;
 
+import com.example.integration.FeatureFlagSnapshotManager;
+import com.example.integration.PinnedFeatureEvaluator;
 import io.getunleash.DefaultUnleash;
 import io.getunleash.FakeUnleash;
 import io.getunleash.Unleash;
@@ -37,7 +39,7 @@ public class UnleashFeatureConfig {
 
     @Bean
     @ConditionalOnProperty(name = "unleash.enabled", havingValue = "true")
-    public Unleash realUnleash() {
+    public Unleash realUnleash(FeatureFlagSnapshotManager featureFlagSnapshotManager) {
         logger.info("Initializing real Unleash with URL: {}", unleashApiUrl);
         
         UnleashConfig config = UnleashConfig.builder()
@@ -49,11 +51,21 @@ public class UnleashFeatureConfig {
             .fetchTogglesInterval(30)
             .sendMetricsInterval(60)
             .synchronousFetchOnInitialisation(false)
+            .subscriber(featureFlagSnapshotManager)
             .build();
 
         return new DefaultUnleash(config);
     }
 
+    @Bean
+    public PinnedFeatureEvaluator pinnedFeatureEvaluator() {
+        return new PinnedFeatureEvaluator(UnleashConfig.builder()
+            .appName("spring-cloud-integration")
+            .instanceId("instance-1-pinned")
+            .environment(environment)
+            .unleashAPI(unleashApiUrl));
+    }
+
     @Bean
     @Profile("test")
     public Unleash testUnleash() {
@@ -12,17 +12,17 @@ import org.springframework.context.annotation.Bean;
 @ConditionalOnProperty(name = "vault.enabled", havingValue = "true")
 public class VaultConfiguration {
 
-    @Value("${vault.address:http://vault:8200}")
+    @Value("${vault.address:http://localhost:8200}")
     private String vaultAddress;
 
-    //@Value("${vault.token}")
-    //private String vaultToken;
+    @Value("${vault.token:myroot}")
+    private String vaultToken;
 
     @Bean
     public Vault vault() throws VaultException {
         VaultConfig config = new VaultConfig()
-                .address("http://localhost:8200")
-                .token("myroot")
+                .address(vaultAddress)
+                .token(vaultToken)
                 .build();
 
         return new Vault(config);
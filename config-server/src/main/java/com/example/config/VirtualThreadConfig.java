@@ -0,0 +1,43 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * Executor for blocking backend calls made by the integrations (Vault reads).
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} on Java 21, Spring Boot already
+ * runs Tomcat request handling on virtual threads; this executor then starts one
+ * virtual thread per backend call, so independent reads overlap without tying up
+ * platform threads. In the default platform-thread mode calls run on the caller's
+ * thread, exactly as before.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    public static final String INTEGRATION_EXECUTOR = "integrationExecutor";
+
+    @Bean(INTEGRATION_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor virtualIntegrationExecutor() {
+        logger.info("Virtual thread mode: request handling and integration calls run on virtual threads");
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("integration-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    @Bean(INTEGRATION_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public TaskExecutor platformIntegrationExecutor() {
+        return new SyncTaskExecutor();
+    }
+}
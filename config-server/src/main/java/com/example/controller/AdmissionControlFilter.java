@@ -0,0 +1,299 @@
+package com.example.controller;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for config fetches, so a fleet refreshing in lockstep cannot
+ * starve everybody else.
+ * <ul>
+ *   <li>Each client has a token bucket; requests beyond its rate get 429. Clients
+ *   are told apart by remote address. Behind a load balancer that is only the
+ *   client's own address when forwarded headers are resolved for trusted proxies
+ *   ({@code server.forward-headers-strategy}). The {@code X-Client-Id} header is
+ *   used instead only with {@code config.admission.client-key=header}, where a
+ *   gateway sets it; otherwise callers could pick a fresh id per request.</li>
+ *   <li>A concurrency limiter caps requests in progress. Periodic refreshes may only
+ *   use part of it and are rejected straight away with 503 when that share is
+ *   taken; bootstrap fetches may use all of it and wait briefly for a slot.</li>
+ *   <li>Every rejection carries {@code Retry-After}. Refreshes get a jittered value
+ *   so rejected clients do not come back in step.</li>
+ * </ul>
+ * Interactive and operational paths ({@code /demo}, {@code /config-debug},
+ * actuator, ...) bypass the limiter.
+ * <p>
+ * Clients mark fetches with {@code X-Config-Fetch: bootstrap|refresh}. Without the
+ * header, conditional requests ({@code If-None-Match}) and delta requests count as
+ * refreshes, everything else as bootstrap.
+ * <p>
+ * A request that goes async keeps its permits until the async processing
+ * completes, errors or times out, not just until the first dispatch returns.
+ * <p>
+ * Off unless {@code config.admission.enabled} is set.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "config.admission.enabled", havingValue = "true")
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+    static final String FETCH_TYPE_HEADER = "X-Config-Fetch";
+
+    @Value("${config.admission.client-rate:5}")
+    private double clientRate;
+
+    @Value("${config.admission.client-burst:20}")
+    private int clientBurst;
+
+    @Value("${config.admission.max-clients:10000}")
+    private int maxClients;
+
+    // remote-address, or header to trust X-Client-Id
+    @Value("${config.admission.client-key:remote-address}")
+    private String clientKey;
+
+    @Value("${config.admission.max-concurrent:64}")
+    private int maxConcurrent;
+
+    @Value("${config.admission.refresh-max-concurrent:48}")
+    private int refreshMaxConcurrent;
+
+    @Value("${config.admission.bootstrap-wait-ms:250}")
+    private long bootstrapWaitMillis;
+
+    @Value("${config.admission.retry-after-seconds:2}")
+    private int retryAfterSeconds;
+
+    @Value("#{'${config.admission.exempt-paths:/actuator/**,/demo/**,/config-debug/**,/comprehensive-config/**,/git-mirror/**}'.split(',')}")
+    private List<String> exemptPaths;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private volatile ClientBuckets buckets;
+    private volatile boolean trustClientIdHeader;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong overloaded = new AtomicLong();
+
+    private volatile Semaphore permits;
+    private volatile Semaphore refreshPermits;
+
+    @Override
+    protected void initFilterBean() {
+        permits = new Semaphore(maxConcurrent);
+        refreshPermits = new Semaphore(Math.min(refreshMaxConcurrent, maxConcurrent));
+        buckets = new ClientBuckets(maxClients, () -> new TokenBucket(clientBurst, clientRate));
+        trustClientIdHeader = "header".equalsIgnoreCase(clientKey.trim());
+        logger.info("Admission control on: {}/s per client (burst {}), keyed by {}", clientRate, clientBurst,
+            trustClientIdHeader ? CLIENT_ID_HEADER + " header" : "remote address");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return exemptPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern.trim(), path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean bootstrap = isBootstrap(request);
+
+        long waitNanos = buckets.get(clientKey(request)).tryAcquire();
+        if (waitNanos > 0) {
+            rateLimited.incrementAndGet();
+            reject(response, 429, (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1), bootstrap);
+            return;
+        }
+
+        if (!acquire(bootstrap)) {
+            overloaded.incrementAndGet();
+            reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, retryAfterSeconds, bootstrap);
+            return;
+        }
+        admitted.incrementAndGet();
+        PermitRelease release = new PermitRelease(bootstrap);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(release);
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private boolean acquire(boolean bootstrap) {
+        if (bootstrap) {
+            try {
+                return permits.tryAcquire(bootstrapWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (!refreshPermits.tryAcquire()) {
+            return false;
+        }
+        if (!permits.tryAcquire()) {
+            refreshPermits.release();
+            return false;
+        }
+        return true;
+    }
+
+    private void reject(HttpServletResponse response, int status, int retryAfter, boolean bootstrap) {
+        // Spread rejected refreshes out instead of sending them back together
+        int seconds = bootstrap ? retryAfter : retryAfter + ThreadLocalRandom.current().nextInt(retryAfter + 1);
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (trustClientIdHeader) {
+            String clientId = request.getHeader(CLIENT_ID_HEADER);
+            if (clientId != null && !clientId.isBlank()) {
+                return "id:" + clientId;
+            }
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+
+    private static boolean isBootstrap(HttpServletRequest request) {
+        String fetchType = request.getHeader(FETCH_TYPE_HEADER);
+        if (fetchType != null) {
+            return "bootstrap".equalsIgnoreCase(fetchType);
+        }
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) == null
+            && !request.getRequestURI().endsWith("/delta");
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("admitted", admitted.get());
+        stats.put("rateLimited", rateLimited.get());
+        stats.put("overloaded", overloaded.get());
+        stats.put("inFlight", maxConcurrent - permits.availablePermits());
+        stats.put("clients", buckets.size());
+        return stats;
+    }
+
+    /**
+     * Gives back the permits of one admitted request, exactly once. Also the
+     * listener that does so when the request went async.
+     */
+    private final class PermitRelease implements AsyncListener {
+
+        private final boolean bootstrap;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitRelease(boolean bootstrap) {
+            this.bootstrap = bootstrap;
+        }
+
+        void run() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+                if (!bootstrap) {
+                    refreshPermits.release();
+                }
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners are dropped when async is restarted; stay registered
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Token buckets of the most recently seen clients, at most about
+     * {@code maxClients} of them. The map is split into stripes, each an
+     * access-ordered map with its own lock that drops its least recently used
+     * bucket on overflow. Finding a bucket and dropping one both take constant
+     * time. A dropped bucket would have refilled by the time its client returns,
+     * unless more than {@code maxClients} clients are active at once.
+     */
+    private static final class ClientBuckets {
+
+        private static final int STRIPES = 16;
+
+        private final List<Map<String, TokenBucket>> stripes = new ArrayList<>(STRIPES);
+        private final Supplier<TokenBucket> factory;
+
+        ClientBuckets(int maxClients, Supplier<TokenBucket> factory) {
+            this.factory = factory;
+            int perStripe = Math.max(1, (maxClients + STRIPES - 1) / STRIPES);
+            for (int i = 0; i < STRIPES; i++) {
+                stripes.add(new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                        return size() > perStripe;
+                    }
+                });
+            }
+        }
+
+        TokenBucket get(String clientKey) {
+            Map<String, TokenBucket> stripe = stripes.get(Math.floorMod(clientKey.hashCode(), STRIPES));
+            synchronized (stripe) {
+                return stripe.computeIfAbsent(clientKey, k -> factory.get());
+            }
+        }
+
+        int size() {
+            int size = 0;
+            for (Map<String, TokenBucket> stripe : stripes) {
+                synchronized (stripe) {
+                    size += stripe.size();
+                }
+            }
+            return size;
+        }
+    }
+}
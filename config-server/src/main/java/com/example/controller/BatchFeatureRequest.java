@@ -0,0 +1,72 @@
+package com.example.controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Body of {@code POST /{application}/{profile}/features/batch}: the contexts to
+ * evaluate and, optionally, a subset of flags (defaults to every flag registered
+ * for the application).
+ */
+public class BatchFeatureRequest {
+
+    private List<String> features = new ArrayList<>();
+    private List<Context> contexts = new ArrayList<>();
+
+    public List<String> getFeatures() {
+        return features;
+    }
+
+    public void setFeatures(List<String> features) {
+        this.features = features;
+    }
+
+    public List<Context> getContexts() {
+        return contexts;
+    }
+
+    public void setContexts(List<Context> contexts) {
+        this.contexts = contexts;
+    }
+
+    public static class Context {
+        private String userId;
+        private String sessionId;
+        private String remoteAddress;
+        private Map<String, String> properties = new HashMap<>();
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public void setUserId(String userId) {
+            this.userId = userId;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public void setSessionId(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        public String getRemoteAddress() {
+            return remoteAddress;
+        }
+
+        public void setRemoteAddress(String remoteAddress) {
+            this.remoteAddress = remoteAddress;
+        }
+
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        public void setProperties(Map<String, String> properties) {
+            this.properties = properties;
+        }
+    }
+}
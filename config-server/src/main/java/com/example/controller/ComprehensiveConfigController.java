@@ -1,7 +1,6 @@
 package com.example.controller;
 
-import io.getunleash.Unleash;
-import io.getunleash.UnleashContext;
+import com.example.integration.FeatureFlagSnapshotManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
@@ -25,7 +24,7 @@ public class ComprehensiveConfigController {
     }
 
     @Autowired
-    private Unleash unleash;
+    private FeatureFlagSnapshotManager featureFlags;
 
     // GitHub Configuration Values
     @Value("${app.name:FALLBACK-APP-NAME}")
@@ -74,8 +73,8 @@ public class ComprehensiveConfigController {
         
         // Feature Flags (should come from GitHub)
         Map<String, Object> features = new HashMap<>();
-        features.put("newProfileFeature", unleash.isEnabled("new-profile-feature"));
-        features.put("betaFeature", unleash.isEnabled("beta-feature"));
+        features.put("newProfileFeature", featureFlags.isEnabled("new-profile-feature"));
+        features.put("betaFeature", featureFlags.isEnabled("beta-feature"));
         config.put("features", features);
         
         // Secrets (should come from Vault)
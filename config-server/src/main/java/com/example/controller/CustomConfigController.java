@@ -1,17 +1,36 @@
 package com.example.controller;
 
 import com.example.integration.*;
+import com.example.repository.EnvironmentDelta;
+import com.example.repository.KeyProjection;
+import com.example.repository.MaterializedEnvironment;
+import com.example.repository.MaterializedEnvironmentRepository;
+import com.example.repository.SingleFlight;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getunleash.FeatureToggle;
+import io.getunleash.UnleashContext;
+import io.getunleash.repository.FeatureCollection;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 //import com.example.integration.VaultIntegration;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.config.environment.Environment;
-import org.springframework.cloud.config.environment.PropertySource;
 import org.springframework.cloud.config.server.environment.EnvironmentController;
-import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("{application}/{profile}")
@@ -24,49 +43,141 @@ public class CustomConfigController {
     private UnleashIntegration unleashIntegration;
 
     @Autowired
-    private EnvironmentRepository environmentRepository;
+    private MaterializedEnvironmentRepository materializedEnvironmentRepository;
     
     @Autowired
     private VaultIntegration vaultIntegration;
     
-    @GetMapping("/complete")
-    public ResponseEntity<Map<String, Object>> getCompleteConfig(
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private SerializedResponseCache responseCache;
+    
+    @Autowired
+    private StageTimers stageTimers;
+    
+    @Value("${config.server-timing.enabled:true}")
+    private boolean serverTimingEnabled;
+    
+    @Value("${config.features.batch.max-contexts:10000}")
+    private int batchMaxContexts;
+    
+    private static final int BATCH_CHUNK_SIZE = 256;
+    
+    private final SingleFlight<String, SerializedResponseCache.Representation> completeBuilds = new SingleFlight<>();
+    
+    /**
+     * Git config, feature flags and secrets in one document. The encoded body is
+     * cached until the commit, the flags or the secrets change, so repeated calls
+     * skip serialization entirely. {@code keys} and {@code prefix} limit the
+     * returned config to the properties the caller needs.
+     */
+    @GetMapping(value = "/complete", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getCompleteConfig(
             @PathVariable String application,
             @PathVariable String profile,
-            @RequestParam(required = false,defaultValue = "main") String label) {
+            @RequestParam(required = false,defaultValue = "main") String label,
+            @RequestParam(required = false) List<String> keys,
+            @RequestParam(required = false) List<String> prefix,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         
-        Map<String, Object> completeConfig = new HashMap<>();
+        KeyProjection projection = KeyProjection.of(keys, prefix);
         
-        // Get configuration from Git
-        //Environment env = environmentController.defaultLabel(application, profile);
-
-
-        Environment env = environmentRepository.findOne(application,profile,label);
-
-        Map<String, Object> gitConfig = new HashMap<>();
-        for (PropertySource source : env.getPropertySources()) {
-            gitConfig.putAll((Map<? extends String, ?>) source.getSource());
-
+        ServerTiming timing = new ServerTiming("complete", application, profile);
+        
+        // Clients restarting together share one build of the same document;
+        // those that joined another build only report the time they waited
+        AtomicBoolean built = new AtomicBoolean();
+        long start = System.nanoTime();
+        SerializedResponseCache.Representation representation = completeBuilds.execute(
+            application + "|" + profile + "|" + label + "|" + projection.getCacheKey(),
+            () -> {
+                built.set(true);
+                return buildComplete(application, profile, label, projection, timing);
+            });
+        if (!built.get()) {
+            timing.record("coalesced", System.nanoTime() - start);
+        }
+        
+        if (serverTimingEnabled) {
+            timing.writeHeader(response);
         }
-        completeConfig.put("config", gitConfig);
+        responseCache.write(representation, request, response);
+        timing.publish(stageTimers);
+    }
+    
+    private SerializedResponseCache.Representation buildComplete(String application, String profile, String label,
+                                                                 KeyProjection projection, ServerTiming timing) {
+        // Get configuration from Git, merged once per commit
+        MaterializedEnvironment env = timing.time("git",
+            () -> materializedEnvironmentRepository.findOne(application, profile, label));
         
         // Get feature flags from Unleash
-        Map<String, Boolean> features = unleashIntegration.getFeatureFlags(application, profile);
-        completeConfig.put("features", features);
+        Map<String, Boolean> features = timing.time("unleash",
+            () -> unleashIntegration.getFeatureFlags(application, profile));
         
         // Get secrets from Vault
-        Map<String, Object> secrets = vaultIntegration.getSecrets(application, profile);
-        completeConfig.put("secrets", secrets);
+        Map<String, Object> secrets = timing.time("vault",
+            () -> vaultIntegration.getSecrets(application, profile));
         
-        // Add metadata
-        Map<String, Object> metadata = new HashMap<>();
-        metadata.put("application", application);
-        metadata.put("profile", profile);
-        metadata.put("label", label != null ? label : "main");
-        metadata.put("timestamp", System.currentTimeMillis());
-        completeConfig.put("metadata", metadata);
+        Supplier<Object> body = () -> {
+            Map<String, Object> completeConfig = new HashMap<>();
+            completeConfig.put("config", env.project(projection));
+            completeConfig.put("features", features);
+            completeConfig.put("secrets", secrets);
+            
+            // Add metadata; the timestamp is when this body was assembled
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("application", application);
+            metadata.put("profile", profile);
+            metadata.put("label", label != null ? label : "main");
+            metadata.put("version", env.getVersion());
+            metadata.put("timestamp", System.currentTimeMillis());
+            completeConfig.put("metadata", metadata);
+            return completeConfig;
+        };
         
-        return ResponseEntity.ok(completeConfig);
+        return timing.time("serialize", () -> env.getVersion() != null
+            ? responseCache.json("complete|" + application + "|" + profile + "|" + label + "|" + projection.getCacheKey(),
+                List.of(env.getVersion(), features, secrets), body)
+            : responseCache.json(body.get()));
+    }
+    
+    /**
+     * Keys added, modified and removed since the given version. Falls back to the
+     * full property map (with {@code "full": true}) when that version is no longer
+     * in the server's history. {@code keys} and {@code prefix} project both
+     * versions before they are compared. Without a label the repository's
+     * configured default label applies, as for {@code /{application}/{profile}}.
+     */
+    @GetMapping(value = "/delta", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getDelta(
+            @PathVariable String application,
+            @PathVariable String profile,
+            @RequestParam(required = false) String label,
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) List<String> keys,
+            @RequestParam(required = false) List<String> prefix,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        
+        // Left null when absent, so the repository resolves its default label the
+        // way EnvironmentController does
+        label = Environment.normalize(label);
+        KeyProjection projection = KeyProjection.of(keys, prefix);
+        MaterializedEnvironment current = materializedEnvironmentRepository.findOne(application, profile, label);
+        MaterializedEnvironment base = materializedEnvironmentRepository.findVersion(application, profile, label, since);
+        Supplier<Object> body = () -> base != null
+            ? EnvironmentDelta.between(base, current, projection)
+            : EnvironmentDelta.full(current, since, projection);
+        
+        SerializedResponseCache.Representation representation = current.getVersion() != null
+            ? responseCache.json("delta|" + application + "|" + profile + "|" + label + "|" + since + "|" + projection.getCacheKey(),
+                current.getVersion(), body)
+            : responseCache.json(body.get());
+        responseCache.write(representation, request, response);
     }
     
     @GetMapping("/features")
@@ -78,6 +189,72 @@ public class CustomConfigController {
         return ResponseEntity.ok(features);
     }
     
+    @GetMapping("/features/definitions")
+    public ResponseEntity<List<FeatureToggle>> getFeatureDefinitions(
+            @PathVariable String application,
+            @PathVariable String profile) {
+        
+        List<FeatureToggle> definitions = unleashIntegration.getFeatureDefinitions(application, profile);
+        return ResponseEntity.ok(definitions);
+    }
+    
+    /**
+     * Evaluates the application's flags for many contexts in one call and streams
+     * the results back as NDJSON, one line per context in request order, flushed
+     * per chunk. The toggle definitions are captured once up front, so every
+     * context is evaluated against the same set. Batches over
+     * {@code config.features.batch.max-contexts} are rejected with 413.
+     */
+    @PostMapping(value = "/features/batch", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> evaluateFeatureBatch(
+            @PathVariable String application,
+            @PathVariable String profile,
+            @RequestBody BatchFeatureRequest request) {
+        
+        List<String> featureNames = request.getFeatures() == null || request.getFeatures().isEmpty()
+            ? unleashIntegration.getFeatureNames(application)
+            : List.copyOf(request.getFeatures());
+        List<BatchFeatureRequest.Context> contexts = request.getContexts() != null
+            ? request.getContexts() : List.of();
+        if (contexts.size() > batchMaxContexts) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        FeatureCollection features = unleashIntegration.captureFeatures(featureNames);
+        
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            for (int start = 0; start < contexts.size(); start += BATCH_CHUNK_SIZE) {
+                int end = Math.min(start + BATCH_CHUNK_SIZE, contexts.size());
+                for (int i = start; i < end; i++) {
+                    BatchFeatureRequest.Context context = contexts.get(i);
+                    generator.writeStartObject();
+                    generator.writeNumberField("index", i);
+                    generator.writeStringField("userId", context.getUserId());
+                    generator.writeStringField("sessionId", context.getSessionId());
+                    generator.writeObjectField("features",
+                        unleashIntegration.evaluate(features, featureNames, toUnleashContext(context)));
+                    generator.writeEndObject();
+                }
+                generator.flush();
+            }
+            generator.writeRaw('\n');
+            generator.close();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+    
+    private static UnleashContext toUnleashContext(BatchFeatureRequest.Context context) {
+        UnleashContext.Builder builder = UnleashContext.builder()
+            .userId(context.getUserId())
+            .sessionId(context.getSessionId())
+            .remoteAddress(context.getRemoteAddress());
+        if (context.getProperties() != null) {
+            context.getProperties().forEach(builder::addProperty);
+        }
+        return builder.build();
+    }
+    
     @GetMapping("/secrets")
     public ResponseEntity<Map<String, Object>> getSecrets(
             @PathVariable String application,
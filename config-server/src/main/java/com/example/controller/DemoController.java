@@ -1,5 +1,6 @@
 package com.example.controller;
 
+import com.example.integration.FeatureFlagSnapshotManager;
 import com.example.service.ConfigService;
 import io.getunleash.Unleash;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +23,9 @@ public class DemoController {
     @Autowired
     private Unleash unleash;
 
+    @Autowired
+    private FeatureFlagSnapshotManager featureFlags;
+
     @Value("${app.message:Default message}")
     private String message;
 
@@ -46,7 +50,7 @@ public class DemoController {
         response.put("config", configService.getConfigFromVault());
         
         // Feature flag example - works with both FakeUnleash and real Unleash
-        response.put("newFeatureEnabled", unleash.isEnabled("new-profile-feature"));
+        response.put("newFeatureEnabled", featureFlags.isEnabled("new-profile-feature"));
         response.put("unleashType", unleash.getClass().getSimpleName());
         
         return response;
@@ -59,8 +63,8 @@ public class DemoController {
         response.put("unleashEnabled", unleashEnabled);
         response.put("unleashType", unleash.getClass().getSimpleName());
         response.put("featureFlags", Map.of(
-            "newProfileFeature", unleash.isEnabled("new-profile-feature"),
-            "betaFeature", unleash.isEnabled("beta-feature")
+            "newProfileFeature", featureFlags.isEnabled("new-profile-feature"),
+            "betaFeature", featureFlags.isEnabled("beta-feature")
         ));
         return response;
     }
@@ -0,0 +1,69 @@
+package com.example.controller;
+
+import com.example.repository.KeyProjection;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies {@code ?keys=} / {@code ?prefix=} projection to the standard
+ * {@link EnvironmentController} responses: every property source keeps only the
+ * requested properties. Without either parameter the environment is untouched.
+ * Ordered ahead of {@link EnvironmentResponseCacheAdvice}, which caches the result.
+ */
+@ControllerAdvice(assignableTypes = EnvironmentController.class)
+@Order(0)
+public class EnvironmentProjectionAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return Environment.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof Environment) || !(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+        Map<String, String[]> parameters = ((ServletServerHttpRequest) request).getServletRequest().getParameterMap();
+        KeyProjection projection = KeyProjection.of(values(parameters, "keys"), values(parameters, "prefix"));
+        if (projection.isAll()) {
+            return body;
+        }
+
+        Environment source = (Environment) body;
+        Environment projected = new Environment(source.getName(), source.getProfiles(), source.getLabel(),
+            source.getVersion(), source.getState());
+        for (PropertySource propertySource : source.getPropertySources()) {
+            Map<Object, Object> properties = new LinkedHashMap<>();
+            propertySource.getSource().forEach((name, value) -> {
+                if (projection.matches(String.valueOf(name))) {
+                    properties.put(name, value);
+                }
+            });
+            projected.add(new PropertySource(propertySource.getName(), properties));
+        }
+        return projected;
+    }
+
+    private static List<String> values(Map<String, String[]> parameters, String name) {
+        String[] values = parameters.get(name);
+        return values != null ? Arrays.asList(values) : List.of();
+    }
+}
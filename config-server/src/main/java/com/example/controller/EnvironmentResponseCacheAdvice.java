@@ -0,0 +1,139 @@
+package com.example.controller;
+
+import com.example.repository.MaterializedEnvironmentRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Answers repeated requests to the standard Spring Cloud Config environment
+ * endpoints ({@code /{name}/{profiles}/{label}} and the {@code .yml}/{@code .properties}
+ * variants) from {@link SerializedResponseCache}.
+ * <p>
+ * The label is resolved to a commit first; while it has not moved, the bytes the
+ * {@link EnvironmentController} produced for the same URL and {@code Accept}
+ * header are written back instead of serializing the body again. On a miss the
+ * body is encoded with the converter Spring MVC selected and stored for the next
+ * request. Runs after {@link EnvironmentProjectionAdvice}, so projected bodies
+ * are what gets cached.
+ */
+@ControllerAdvice(assignableTypes = EnvironmentController.class)
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "config.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class EnvironmentResponseCacheAdvice implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private MaterializedEnvironmentRepository materializedEnvironmentRepository;
+
+    @Autowired
+    private SerializedResponseCache responseCache;
+
+    @Autowired
+    private HttpMessageConverters messageConverters;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return !returnType.hasMethodAnnotation(ExceptionHandler.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest)
+                || !(response instanceof ServletServerHttpResponse)) {
+            return body;
+        }
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        HttpServletResponse servletResponse = ((ServletServerHttpResponse) response).getServletResponse();
+        if (!"GET".equals(servletRequest.getMethod()) || servletResponse.getStatus() != HttpServletResponse.SC_OK) {
+            return body;
+        }
+
+        Map<String, String> variables =
+            (Map<String, String>) servletRequest.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String version = variables == null ? null : materializedEnvironmentRepository.resolveVersion(
+            variables.get("name"), variables.get("profiles"), label(variables.get("label")));
+        HttpMessageConverter<Object> converter = converter(selectedConverterType);
+        if (version == null || converter == null) {
+            return body;
+        }
+
+        String key = cacheKey(servletRequest);
+        SerializedResponseCache.Representation representation = responseCache.get(key, version);
+        try {
+            if (representation == null) {
+                BufferedMessage encoded = new BufferedMessage();
+                converter.write(body, selectedContentType, encoded);
+                MediaType contentType = encoded.headers.getContentType();
+                representation = responseCache.put(key, version,
+                    String.valueOf(contentType != null ? contentType : selectedContentType), encoded.body.toByteArray());
+            }
+            responseCache.write(representation, servletRequest, servletResponse);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Already written; tells Spring MVC there is nothing left to convert
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> converter(Class<? extends HttpMessageConverter<?>> type) {
+        for (HttpMessageConverter<?> converter : messageConverters.getConverters()) {
+            if (converter.getClass() == type) {
+                return (HttpMessageConverter<Object>) converter;
+            }
+        }
+        return null;
+    }
+
+    private static String label(String label) {
+        return label != null ? label.replace("(_)", "/") : null;
+    }
+
+    private static String cacheKey(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return request.getRequestURI() + (query != null ? "?" + query : "") + "|" + (accept != null ? accept : "");
+    }
+
+    private static final class BufferedMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
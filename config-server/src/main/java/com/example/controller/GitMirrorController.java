@@ -0,0 +1,42 @@
+package com.example.controller;
+
+import com.example.repository.GitMirrorManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Webhook target for Git push notifications. The fetch itself happens on the
+ * mirror's background thread; this only schedules it.
+ */
+@RestController
+@RequestMapping("/git-mirror")
+public class GitMirrorController {
+
+    private final ObjectProvider<GitMirrorManager> mirrorManager;
+
+    public GitMirrorController(ObjectProvider<GitMirrorManager> mirrorManager) {
+        this.mirrorManager = mirrorManager;
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh() {
+        GitMirrorManager manager = mirrorManager.getIfAvailable();
+        if (manager == null) {
+            return ResponseEntity.notFound().build();
+        }
+        manager.requestFetch();
+        return ResponseEntity.accepted().body(Map.of("status", "fetch scheduled"));
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> status() {
+        GitMirrorManager manager = mirrorManager.getIfAvailable();
+        return manager == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(manager.getStatus());
+    }
+}
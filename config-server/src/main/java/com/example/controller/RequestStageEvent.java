@@ -0,0 +1,37 @@
+package com.example.controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one stage of a config request, emitted by {@link ServerTiming}.
+ */
+@Name("com.example.config.RequestStage")
+@Label("Config Request Stage")
+@Category({"Config Server"})
+@Description("One backend or serialization stage of a config request")
+@StackTrace(false)
+class RequestStageEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Application")
+    String application;
+
+    @Label("Profile")
+    String profile;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Size")
+    @Description("Entries or bytes produced by the stage, -1 when unknown")
+    int size;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,267 @@
+package com.example.controller;
+
+import com.example.repository.BoundedLruMap;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded response bodies keyed by request and content version. Each entry holds
+ * the body exactly as it goes on the wire, so a repeated request is answered with
+ * a single write of prebuilt bytes and no Jackson serialization at all. The
+ * gzip-compressed form and the ETag of a stored entry are built on the first
+ * write that needs them and kept with it; one-off bodies get neither kept.
+ * <p>
+ * The version is any value whose {@code equals} changes with the content
+ * (typically the config commit, plus whatever else went into the body); a
+ * lookup with a different version is a miss and the entry is rebuilt.
+ */
+@Component
+public class SerializedResponseCache {
+
+    // Below this size gzip costs more than it saves
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${config.response-cache.max-entries:512}")
+    private int maxEntries;
+
+    private BoundedLruMap<String, Representation> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        cache = new BoundedLruMap<>(maxEntries);
+    }
+
+    /**
+     * Cached representation for the key, or {@code null} when there is none for
+     * this version.
+     */
+    public Representation get(String key, Object version) {
+        Representation representation = cache.get(key);
+        if (representation != null && representation.version.equals(version)) {
+            hits.incrementAndGet();
+            return representation;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores an already encoded body.
+     */
+    public Representation put(String key, Object version, String contentType, byte[] body) {
+        Representation representation = new Representation(version, contentType, body, true);
+        cache.put(key, representation);
+        return representation;
+    }
+
+    /**
+     * Cached JSON for the key and version, serializing the body only on a miss.
+     */
+    public Representation json(String key, Object version, Supplier<Object> body) {
+        Representation representation = get(key, version);
+        if (representation != null) {
+            return representation;
+        }
+        return put(key, version, MediaType.APPLICATION_JSON_VALUE, toJson(body.get()));
+    }
+
+    /**
+     * One-off JSON representation for content that has no version to cache it by.
+     */
+    public Representation json(Object body) {
+        return new Representation("", MediaType.APPLICATION_JSON_VALUE, toJson(body), false);
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    /**
+     * Writes the representation, gzip-compressed when the client accepts it, and
+     * answers a matching {@code If-None-Match} with 304. One-off representations
+     * carry no ETag.
+     */
+    public void write(Representation representation, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        String etag = representation.etag();
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (etag != null && etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = representation.body;
+        byte[] gzipped = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) ? representation.gzipped() : null;
+        if (gzipped != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = gzipped;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(representation.contentType);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header admits gzip: listed with a
+     * non-zero quality, or not listed and covered by a non-zero {@code *}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                return quality(parts) > 0;
+            }
+            if (name.equals("*")) {
+                wildcard = quality(parts) > 0;
+            }
+        }
+        return wildcard;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", cache.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", cache.getEvictions());
+        stats.put("bytes", cache.values().stream().mapToLong(Representation::size).sum());
+        return stats;
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static final class Representation {
+        // Marks a body that gzip does not make smaller
+        private static final byte[] INCOMPRESSIBLE = new byte[0];
+
+        private final Object version;
+        private final String contentType;
+        private final byte[] body;
+        private final boolean stored;
+        private volatile byte[] gzipped;
+        private volatile String etag;
+
+        Representation(Object version, String contentType, byte[] body, boolean stored) {
+            this.version = version;
+            this.contentType = contentType;
+            this.body = body;
+            this.stored = stored;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Strong ETag of the body, {@code null} for a one-off representation.
+         */
+        public String getEtag() {
+            return etag();
+        }
+
+        int getLength() {
+            return body.length;
+        }
+
+        long size() {
+            byte[] compressed = gzipped;
+            return body.length + (compressed != null ? compressed.length : 0);
+        }
+
+        private String etag() {
+            if (!stored) {
+                return null;
+            }
+            String value = etag;
+            if (value == null) {
+                // Racing writers compute the same value
+                value = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+                etag = value;
+            }
+            return value;
+        }
+
+        /**
+         * Compressed body, or {@code null} when it would not be smaller.
+         */
+        private byte[] gzipped() {
+            if (body.length < GZIP_MIN_BYTES) {
+                return null;
+            }
+            byte[] compressed = gzipped;
+            if (compressed == null) {
+                compressed = gzip(body);
+                if (compressed.length >= body.length) {
+                    compressed = INCOMPRESSIBLE;
+                }
+                if (stored) {
+                    gzipped = compressed;
+                }
+            }
+            return compressed != INCOMPRESSIBLE ? compressed : null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.controller;
+
+import com.example.repository.MaterializedEnvironment;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Stage timings for one request. Each stage costs two {@code System.nanoTime()}
+ * calls; the result goes out as a {@code Server-Timing} header and as Micrometer
+ * timers ({@code config.request.stage}, tagged with endpoint, application, profile
+ * and stage; see {@link StageTimers} for how the tags are bounded). Stages run
+ * through {@link #time} are also emitted as {@link RequestStageEvent}s when a JFR
+ * recording has them enabled, so slow requests line up with GC and I/O on the
+ * same timeline.
+ */
+final class ServerTiming {
+
+    static final String METRIC_NAME = "config.request.stage";
+
+    private static final int MAX_STAGES = 8;
+
+    private final String endpoint;
+    private final String application;
+    private final String profile;
+    private final long startedAt = System.nanoTime();
+    private final String[] stages = new String[MAX_STAGES];
+    private final long[] durations = new long[MAX_STAGES];
+    private int count;
+
+    ServerTiming(String endpoint, String application, String profile) {
+        this.endpoint = endpoint;
+        this.application = application;
+        this.profile = profile;
+    }
+
+    <T> T time(String stage, Supplier<T> work) {
+        RequestStageEvent event = new RequestStageEvent();
+        event.begin();
+        long start = System.nanoTime();
+        T result = null;
+        String outcome = "error";
+        try {
+            result = work.get();
+            outcome = "success";
+            return result;
+        } finally {
+            record(stage, System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint;
+                event.application = application;
+                event.profile = profile;
+                event.stage = stage;
+                event.size = sizeOf(result);
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    synchronized void record(String stage, long nanos) {
+        if (count < MAX_STAGES) {
+            stages[count] = stage;
+            durations[count] = nanos;
+            count++;
+        }
+    }
+
+    /**
+     * Adds the header; must run before the body is written.
+     */
+    synchronized void writeHeader(HttpServletResponse response) {
+        StringBuilder header = new StringBuilder(16 * (count + 1));
+        for (int i = 0; i < count; i++) {
+            appendMetric(header, stages[i], durations[i]);
+        }
+        appendMetric(header, "total", System.nanoTime() - startedAt);
+        response.setHeader("Server-Timing", header.toString());
+    }
+
+    synchronized void publish(StageTimers timers) {
+        for (int i = 0; i < count; i++) {
+            timers.timer(endpoint, application, profile, stages[i])
+                .record(durations[i], TimeUnit.NANOSECONDS);
+        }
+        timers.timer(endpoint, application, profile, "total")
+            .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private static int sizeOf(Object result) {
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        }
+        if (result instanceof MaterializedEnvironment) {
+            return ((MaterializedEnvironment) result).getProperties().size();
+        }
+        if (result instanceof SerializedResponseCache.Representation) {
+            return ((SerializedResponseCache.Representation) result).getLength();
+        }
+        return -1;
+    }
+
+    private static void appendMetric(StringBuilder header, String stage, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(stage).append(";dur=")
+            .append(String.format(Locale.ROOT, "%.2f", nanos / 1_000_000d));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code config.request.stage} timers, registered once and then looked up.
+ * <p>
+ * Application and profile come straight from the request path, so only the first
+ * {@code config.server-timing.max-applications} pairs seen get timers tagged with
+ * them; requests for any other pair are recorded under {@code other}. That keeps
+ * the number of meters bounded whatever callers put in the URL.
+ */
+@Component
+class StageTimers {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageTimers.class);
+
+    static final String OTHER = "other";
+
+    private final MeterRegistry registry;
+    private final int maxApplications;
+    private final Map<String, PairTimers> tagged = new ConcurrentHashMap<>();
+    private final Map<String, PairTimers> other = new ConcurrentHashMap<>();
+    private volatile boolean full;
+
+    StageTimers(MeterRegistry registry,
+                @Value("${config.server-timing.max-applications:200}") int maxApplications) {
+        this.registry = registry;
+        this.maxApplications = maxApplications;
+    }
+
+    Timer timer(String endpoint, String application, String profile, String stage) {
+        return timersFor(endpoint, application, profile).timer(stage);
+    }
+
+    private PairTimers timersFor(String endpoint, String application, String profile) {
+        String key = endpoint + '|' + application + '|' + profile;
+        PairTimers timers = tagged.get(key);
+        if (timers != null) {
+            return timers;
+        }
+        if (!full) {
+            synchronized (this) {
+                if (tagged.size() < maxApplications) {
+                    return tagged.computeIfAbsent(key, k -> new PairTimers(endpoint, application, profile));
+                }
+                if (!full) {
+                    full = true;
+                    logger.info("{} is tagged with {} application/profile pairs; further ones are tagged '{}'",
+                        ServerTiming.METRIC_NAME, maxApplications, OTHER);
+                }
+            }
+        }
+        return other.computeIfAbsent(endpoint, e -> new PairTimers(e, OTHER, OTHER));
+    }
+
+    private final class PairTimers {
+
+        private final String endpoint;
+        private final String application;
+        private final String profile;
+        private final Map<String, Timer> byStage = new ConcurrentHashMap<>();
+
+        PairTimers(String endpoint, String application, String profile) {
+            this.endpoint = endpoint;
+            this.application = application;
+            this.profile = profile;
+        }
+
+        // Stage names come from the code, so this map stays small
+        Timer timer(String stage) {
+            Timer timer = byStage.get(stage);
+            return timer != null ? timer : byStage.computeIfAbsent(stage, s -> Timer.builder(ServerTiming.METRIC_NAME)
+                .description("Time spent per stage of a config request")
+                .tags("endpoint", endpoint, "application", application, "profile", profile, "stage", s)
+                .register(registry));
+        }
+    }
+}
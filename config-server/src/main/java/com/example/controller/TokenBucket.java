@@ -0,0 +1,42 @@
+package com.example.controller;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and refills at
+ * {@code ratePerSecond}. Each admitted request takes one token.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double capacity, double ratePerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Takes a token if one is available. Returns 0 when admitted, otherwise the
+     * nanoseconds until the next token.
+     */
+    synchronized long tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        if (tokens < capacity) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        }
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.integration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of which feature flags belong to which application.
+ * <p>
+ * Definitions come from two places: explicit lists under
+ * {@code unleash.feature-registry.applications.<application>} and, when prefix
+ * discovery is on, every Unleash toggle named {@code <application>.<flag>}.
+ * Each reload builds a fresh immutable index and swaps it in with a single
+ * write, so readers never see a half-built registry.
+ */
+@Component
+public class FeatureFlagRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeatureFlagRegistry.class);
+
+    static final String PROPERTY_PREFIX = "unleash.feature-registry";
+
+    private final Environment environment;
+
+    private volatile Index index = Index.EMPTY;
+
+    public FeatureFlagRegistry(Environment environment) {
+        this.environment = environment;
+        reload(List.of());
+    }
+
+    /**
+     * Flags registered for the application, explicit entries first.
+     */
+    public List<String> getFeatureNames(String applicationName) {
+        return index.byApplication.getOrDefault(applicationName, List.of());
+    }
+
+    /**
+     * Unleash toggles sharing a name prefix, e.g. {@code service-a} for
+     * {@code service-a.dark-mode}.
+     */
+    public List<String> getFeatureNamesByPrefix(String prefix) {
+        return index.byPrefix.getOrDefault(prefix, List.of());
+    }
+
+    public Map<String, List<String>> getApplications() {
+        return index.byApplication;
+    }
+
+    /**
+     * Rebuilds the index from the current environment and the toggle names
+     * Unleash knows about, then publishes it atomically.
+     */
+    public void reload(Collection<String> toggleNames) {
+        Definitions definitions = Binder.get(environment)
+            .bind(PROPERTY_PREFIX, Bindable.of(Definitions.class))
+            .orElseGet(Definitions::new);
+
+        Map<String, List<String>> byPrefix = new HashMap<>();
+        if (definitions.isPrefixDiscovery()) {
+            String separator = definitions.getPrefixSeparator();
+            for (String toggleName : toggleNames) {
+                int end = toggleName.indexOf(separator);
+                if (end > 0) {
+                    byPrefix.computeIfAbsent(toggleName.substring(0, end), k -> new ArrayList<>()).add(toggleName);
+                }
+            }
+        }
+
+        Map<String, Set<String>> merged = new LinkedHashMap<>();
+        definitions.getApplications().forEach((applicationName, names) ->
+            merged.computeIfAbsent(applicationName, k -> new LinkedHashSet<>()).addAll(names));
+        byPrefix.forEach((prefix, names) ->
+            merged.computeIfAbsent(prefix, k -> new LinkedHashSet<>()).addAll(names));
+
+        Map<String, List<String>> byApplication = new HashMap<>();
+        merged.forEach((applicationName, names) -> byApplication.put(applicationName, List.copyOf(names)));
+        Map<String, List<String>> prefixes = new HashMap<>();
+        byPrefix.forEach((prefix, names) -> prefixes.put(prefix, List.copyOf(names)));
+
+        index = new Index(Map.copyOf(byApplication), Map.copyOf(prefixes));
+        logger.debug("Feature flag registry reloaded: {} applications, {} prefixes",
+            byApplication.size(), prefixes.size());
+    }
+
+    private static final class Index {
+        static final Index EMPTY = new Index(Map.of(), Map.of());
+
+        final Map<String, List<String>> byApplication;
+        final Map<String, List<String>> byPrefix;
+
+        Index(Map<String, List<String>> byApplication, Map<String, List<String>> byPrefix) {
+            this.byApplication = byApplication;
+            this.byPrefix = byPrefix;
+        }
+    }
+
+    /**
+     * Bound from {@code unleash.feature-registry.*}.
+     */
+    public static class Definitions {
+        private Map<String, List<String>> applications = new LinkedHashMap<>();
+        private boolean prefixDiscovery = true;
+        private String prefixSeparator = ".";
+
+        public Map<String, List<String>> getApplications() {
+            return applications;
+        }
+
+        public void setApplications(Map<String, List<String>> applications) {
+            this.applications = applications;
+        }
+
+        public boolean isPrefixDiscovery() {
+            return prefixDiscovery;
+        }
+
+        public void setPrefixDiscovery(boolean prefixDiscovery) {
+            this.prefixDiscovery = prefixDiscovery;
+        }
+
+        public String getPrefixSeparator() {
+            return prefixSeparator;
+        }
+
+        public void setPrefixSeparator(String prefixSeparator) {
+            this.prefixSeparator = prefixSeparator;
+        }
+    }
+}
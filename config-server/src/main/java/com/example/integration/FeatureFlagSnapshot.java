@@ -0,0 +1,59 @@
+package com.example.integration;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Immutable result of evaluating every known feature flag against the default
+ * (empty) Unleash context. A snapshot is built once per toggle fetch and then
+ * shared by all request threads, so lookups are plain map reads.
+ */
+public final class FeatureFlagSnapshot {
+
+    static final FeatureFlagSnapshot EMPTY = new FeatureFlagSnapshot(0, Map.of(), Map.of());
+
+    private final long version;
+    private final Instant builtAt;
+    private final Map<String, Boolean> flags;
+    private final Map<String, Map<String, Boolean>> flagsByApplication;
+
+    FeatureFlagSnapshot(long version, Map<String, Boolean> flags,
+                        Map<String, Map<String, Boolean>> flagsByApplication) {
+        this.version = version;
+        this.builtAt = Instant.now();
+        this.flags = Map.copyOf(flags);
+        this.flagsByApplication = Map.copyOf(flagsByApplication);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    /**
+     * Precomputed state of a single flag, or {@code null} when the flag was not
+     * part of this snapshot.
+     */
+    public Boolean lookup(String featureName) {
+        return flags.get(featureName);
+    }
+
+    /**
+     * Precomputed, immutable flag map for an application. Unknown applications
+     * get an empty map.
+     */
+    public Map<String, Boolean> forApplication(String applicationName) {
+        return flagsByApplication.getOrDefault(applicationName, Map.of());
+    }
+
+    public Map<String, Boolean> getFlags() {
+        return flags;
+    }
+
+    public int size() {
+        return flags.size();
+    }
+}
@@ -0,0 +1,417 @@
+package com.example.integration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getunleash.ActivationStrategy;
+import io.getunleash.FeatureToggle;
+import io.getunleash.MoreOperations;
+import io.getunleash.Unleash;
+import io.getunleash.UnleashContext;
+import io.getunleash.UnleashException;
+import io.getunleash.event.UnleashSubscriber;
+import io.getunleash.repository.ClientFeaturesResponse;
+import io.getunleash.repository.FeatureCollection;
+import io.getunleash.repository.FeatureToggleResponse;
+import io.getunleash.repository.SegmentCollection;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a {@link FeatureFlagSnapshot} in step with the toggles Unleash has fetched.
+ * <p>
+ * Registered as the Unleash subscriber, so every fetch that reports changed toggles
+ * triggers a rebuild on a dedicated thread. Fetched definitions are compared with
+ * the previous fetch and only the affected flags and applications are rebuilt;
+ * a {@link FeatureFlagsChangedEvent} announces each new snapshot. Request threads
+ * only ever read the current snapshot reference, so flag freshness is bounded by
+ * the Unleash fetch interval.
+ */
+@Component
+public class FeatureFlagSnapshotManager implements UnleashSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeatureFlagSnapshotManager.class);
+
+    // Unleash dispatches the fetch event before it swaps its own repository,
+    // so a rebuild waits (briefly) until the fetched toggles are visible. The
+    // first check is also delayed: segments cannot be read back from the client,
+    // so a fetch that only changes segments is applied after one poll interval.
+    private static final long REPOSITORY_POLL_MILLIS = 50;
+    private static final int REPOSITORY_POLL_ATTEMPTS = 40;
+
+    private static final String FETCHES_METRIC = "unleash.fetches";
+
+    private static final UnleashContext DEFAULT_CONTEXT = UnleashContext.builder().build();
+
+    private final ObjectProvider<Unleash> unleashProvider;
+    private final FeatureFlagRegistry registry;
+    private final ScheduledExecutorService rebuildExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong versions = new AtomicLong();
+    // Bumped by every request thread, read only when metrics are scraped
+    private final LongAdder snapshotHits = new LongAdder();
+    private final LongAdder snapshotMisses = new LongAdder();
+
+    // Toggle name -> serialized definition, with the segments it references,
+    // from the last applied fetch
+    private Map<String, String> definitions = Map.of();
+
+    // Segments of the last applied fetch; the Unleash client does not expose its own
+    private volatile SegmentCollection segments = new SegmentCollection(List.of());
+
+    private volatile FeatureFlagSnapshot snapshot = FeatureFlagSnapshot.EMPTY;
+    private volatile boolean ready = false;
+
+    public FeatureFlagSnapshotManager(ObjectProvider<Unleash> unleashProvider, FeatureFlagRegistry registry,
+                                      ApplicationEventPublisher eventPublisher) {
+        this.unleashProvider = unleashProvider;
+        this.registry = registry;
+        this.eventPublisher = eventPublisher;
+        this.rebuildExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "feature-flag-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public FeatureFlagSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Flag state for the default context, answered from the current snapshot.
+     * Flags that are not in the snapshot yet fall back to a live evaluation.
+     */
+    public boolean isEnabled(String featureName) {
+        Boolean enabled = snapshot.lookup(featureName);
+        if (enabled != null) {
+            snapshotHits.increment();
+            return enabled;
+        }
+        snapshotMisses.increment();
+        return unleashProvider.getObject().isEnabled(featureName, DEFAULT_CONTEXT);
+    }
+
+    /**
+     * Segments that came with the toggles Unleash currently holds, empty until a
+     * fetch has been applied.
+     */
+    public SegmentCollection getSegments() {
+        return segments;
+    }
+
+    public long getSnapshotHits() {
+        return snapshotHits.sum();
+    }
+
+    /**
+     * Lookups of flags missing from the snapshot, answered by a live evaluation.
+     */
+    public long getSnapshotMisses() {
+        return snapshotMisses.sum();
+    }
+
+    /**
+     * Precomputed flags for an application. The profile is accepted for API symmetry
+     * with the config endpoints; flags are evaluated against the default context,
+     * which does not carry the profile.
+     * <p>
+     * A call that arrives before the first snapshot exists builds it, rather than
+     * answering with an empty map while {@link #isEnabled} evaluates live.
+     */
+    public Map<String, Boolean> evaluateAll(String applicationName, String profile) {
+        FeatureFlagSnapshot current = snapshot;
+        if (current == FeatureFlagSnapshot.EMPTY) {
+            current = firstSnapshot();
+        }
+        return current.forApplication(applicationName);
+    }
+
+    private synchronized FeatureFlagSnapshot firstSnapshot() {
+        return snapshot != FeatureFlagSnapshot.EMPTY ? snapshot : rebuild();
+    }
+
+    // Listeners run before the application reports itself ready to take traffic,
+    // so the first snapshot is in place by then
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ready = true;
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to build the initial feature flag snapshot: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        boolean registryChanged = event.getKeys().stream()
+            .anyMatch(key -> key.startsWith(FeatureFlagRegistry.PROPERTY_PREFIX));
+        if (ready && registryChanged) {
+            rebuildExecutor.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Reloads the flag registry, re-evaluates every known flag and publishes a
+     * new snapshot. Useful after flipping flags on a {@code FakeUnleash}, which
+     * never fetches.
+     */
+    public synchronized FeatureFlagSnapshot rebuild() {
+        Unleash unleash = unleashProvider.getObject();
+
+        List<String> toggleNames = unleash.more().getFeatureToggleNames();
+        registry.reload(toggleNames);
+        definitions = fingerprint(unleash, toggleNames);
+
+        Set<String> featureNames = new LinkedHashSet<>(toggleNames);
+        registry.getApplications().values().forEach(featureNames::addAll);
+
+        Map<String, Boolean> flags = new HashMap<>();
+        for (String featureName : featureNames) {
+            flags.put(featureName, unleash.isEnabled(featureName, DEFAULT_CONTEXT));
+        }
+
+        Map<String, Map<String, Boolean>> flagsByApplication = new HashMap<>();
+        registry.getApplications().forEach((applicationName, names) ->
+            flagsByApplication.put(applicationName, applicationFlags(names, flags)));
+
+        return publish(flags, flagsByApplication, featureNames, flagsByApplication.keySet());
+    }
+
+    /**
+     * Incremental rebuild after a fetch: only toggles whose definitions (or
+     * the segments they use) differ from the previous fetch are re-evaluated,
+     * and only applications that reference them (or whose flag list changed)
+     * get new maps.
+     */
+    synchronized void applyFetched(FeatureCollection fetched) {
+        Unleash unleash = unleashProvider.getObject();
+        Map<String, String> fetchedDefinitions = fingerprint(fetched.getToggleCollection().getFeatures(),
+            fetched.getSegmentCollection());
+        if (fetched.getSegmentCollection() != null) {
+            segments = fetched.getSegmentCollection();
+        }
+
+        Set<String> changedFeatures = new HashSet<>();
+        fetchedDefinitions.forEach((name, definition) -> {
+            if (!definition.equals(definitions.get(name))) {
+                changedFeatures.add(name);
+            }
+        });
+        definitions.keySet().stream()
+            .filter(name -> !fetchedDefinitions.containsKey(name))
+            .forEach(changedFeatures::add);
+        definitions = fetchedDefinitions;
+
+        if (changedFeatures.isEmpty()) {
+            logger.debug("Fetched toggles match the current snapshot, nothing to rebuild");
+            return;
+        }
+
+        Map<String, List<String>> previousApplications = registry.getApplications();
+        registry.reload(fetchedDefinitions.keySet());
+        Map<String, List<String>> applications = registry.getApplications();
+
+        FeatureFlagSnapshot current = snapshot;
+        Map<String, Boolean> flags = new HashMap<>(current.getFlags());
+        Set<String> toEvaluate = new HashSet<>(changedFeatures);
+        applications.values().forEach(names -> names.stream()
+            .filter(name -> !flags.containsKey(name))
+            .forEach(toEvaluate::add));
+        for (String featureName : toEvaluate) {
+            flags.put(featureName, unleash.isEnabled(featureName, DEFAULT_CONTEXT));
+        }
+
+        Set<String> affectedApplications = new HashSet<>();
+        Map<String, Map<String, Boolean>> flagsByApplication = new HashMap<>();
+        applications.forEach((applicationName, names) -> {
+            boolean affected = !names.equals(previousApplications.get(applicationName))
+                || names.stream().anyMatch(toEvaluate::contains);
+            if (affected) {
+                affectedApplications.add(applicationName);
+                flagsByApplication.put(applicationName, applicationFlags(names, flags));
+            } else {
+                flagsByApplication.put(applicationName, current.forApplication(applicationName));
+            }
+        });
+        previousApplications.keySet().stream()
+            .filter(applicationName -> !applications.containsKey(applicationName))
+            .forEach(affectedApplications::add);
+
+        publish(flags, flagsByApplication, changedFeatures, affectedApplications);
+    }
+
+    private FeatureFlagSnapshot publish(Map<String, Boolean> flags,
+                                        Map<String, Map<String, Boolean>> flagsByApplication,
+                                        Set<String> changedFeatures, Set<String> affectedApplications) {
+        FeatureFlagSnapshot rebuilt = new FeatureFlagSnapshot(versions.incrementAndGet(), flags, flagsByApplication);
+        snapshot = rebuilt;
+        logger.debug("Published feature flag snapshot v{} with {} flags ({} changed, applications {})",
+            rebuilt.getVersion(), rebuilt.size(), changedFeatures.size(), affectedApplications);
+        eventPublisher.publishEvent(new FeatureFlagsChangedEvent(this, rebuilt, changedFeatures, affectedApplications));
+        return rebuilt;
+    }
+
+    private static Map<String, Boolean> applicationFlags(List<String> names, Map<String, Boolean> flags) {
+        Map<String, Boolean> applicationFlags = new HashMap<>();
+        for (String featureName : names) {
+            applicationFlags.put(featureName, flags.get(featureName));
+        }
+        return Map.copyOf(applicationFlags);
+    }
+
+    private Map<String, String> fingerprint(Unleash unleash, List<String> toggleNames) {
+        List<FeatureToggle> toggles = new ArrayList<>();
+        for (String toggleName : toggleNames) {
+            unleash.more().getFeatureToggleDefinition(toggleName).ifPresent(toggles::add);
+        }
+        // The client does not expose segments, so toggles that use them always
+        // count as changed on the next fetch
+        return fingerprint(toggles, null);
+    }
+
+    // Unleash model classes do not implement equals, so definitions are compared
+    // through their JSON form. A toggle's fingerprint includes the segments its
+    // strategies reference, so a segment edit re-evaluates the toggles using it.
+    // This runs once per changed fetch, never per request.
+    private Map<String, String> fingerprint(Collection<FeatureToggle> toggles, SegmentCollection segments) {
+        Map<String, String> fingerprints = new HashMap<>();
+        for (FeatureToggle toggle : toggles) {
+            Set<Integer> segmentIds = segmentIds(toggle);
+            String fingerprint;
+            if (segmentIds.isEmpty()) {
+                fingerprint = serialize(toggle);
+            } else if (segments == null) {
+                fingerprint = null;
+            } else {
+                List<Object> definition = new ArrayList<>();
+                definition.add(toggle);
+                segmentIds.forEach(id -> definition.add(segments.getSegment(id)));
+                fingerprint = serialize(definition);
+            }
+            // Unique value forces the toggle to be treated as changed
+            fingerprints.put(toggle.getName(), fingerprint != null ? fingerprint : "unknown@" + System.nanoTime());
+        }
+        return fingerprints;
+    }
+
+    private static Set<Integer> segmentIds(FeatureToggle toggle) {
+        Set<Integer> ids = new TreeSet<>();
+        if (toggle.getStrategies() != null) {
+            for (ActivationStrategy strategy : toggle.getStrategies()) {
+                if (strategy.getSegments() != null) {
+                    ids.addAll(strategy.getSegments());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void togglesFetched(FeatureToggleResponse toggleResponse) {
+        Metrics.counter(FETCHES_METRIC, "status", toggleResponse.getStatus().name()).increment();
+        if (toggleResponse.getStatus() == FeatureToggleResponse.Status.CHANGED) {
+            SegmentCollection segments = toggleResponse instanceof ClientFeaturesResponse response
+                ? response.getSegmentCollection() : null;
+            scheduleRebuild(new FeatureCollection(toggleResponse.getToggleCollection(), segments), 0);
+        }
+    }
+
+    @Override
+    public void onError(UnleashException unleashException) {
+        Metrics.counter(FETCHES_METRIC, "status", "ERROR").increment();
+    }
+
+    @Override
+    public void featuresBackupRestored(FeatureCollection featureCollection) {
+        scheduleRebuild(featureCollection, 0);
+    }
+
+    @Override
+    public void featuresBootstrapped(FeatureCollection featureCollection) {
+        scheduleRebuild(featureCollection, 0);
+    }
+
+    private void scheduleRebuild(FeatureCollection fetched, int attempt) {
+        if (!ready) {
+            // Events raised while the context is starting are covered by the initial rebuild
+            return;
+        }
+        rebuildExecutor.schedule(() -> {
+            if (attempt < REPOSITORY_POLL_ATTEMPTS && !repositoryReflects(fetched)) {
+                scheduleRebuild(fetched, attempt + 1);
+                return;
+            }
+            try {
+                if (fetched != null && fetched.getToggleCollection() != null) {
+                    applyFetched(fetched);
+                } else {
+                    rebuild();
+                }
+            } catch (Exception e) {
+                logger.error("Failed to rebuild feature flag snapshot: {}", e.getMessage());
+            }
+        }, REPOSITORY_POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // The client holds the fetched toggles once it has exactly the fetched names,
+    // each with an equal definition
+    private boolean repositoryReflects(FeatureCollection fetched) {
+        if (fetched == null || fetched.getToggleCollection() == null) {
+            return true;
+        }
+        MoreOperations more = unleashProvider.getObject().more();
+        Collection<FeatureToggle> toggles = fetched.getToggleCollection().getFeatures();
+        Set<String> fetchedNames = toggles.stream().map(FeatureToggle::getName).collect(Collectors.toSet());
+        if (!fetchedNames.equals(new HashSet<>(more.getFeatureToggleNames()))) {
+            return false;
+        }
+        for (FeatureToggle toggle : toggles) {
+            FeatureToggle current = more.getFeatureToggleDefinition(toggle.getName()).orElse(null);
+            if (current == null
+                || current != toggle && !Objects.equals(serialize(current), serialize(toggle))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
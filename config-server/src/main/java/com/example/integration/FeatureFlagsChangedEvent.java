@@ -0,0 +1,37 @@
+package com.example.integration;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Published after a new {@link FeatureFlagSnapshot} has been swapped in, naming
+ * the flags whose definitions changed and the applications whose flag maps
+ * were rebuilt as a result.
+ */
+public class FeatureFlagsChangedEvent extends ApplicationEvent {
+
+    private final FeatureFlagSnapshot snapshot;
+    private final Set<String> changedFeatures;
+    private final Set<String> affectedApplications;
+
+    public FeatureFlagsChangedEvent(Object source, FeatureFlagSnapshot snapshot,
+                                    Set<String> changedFeatures, Set<String> affectedApplications) {
+        super(source);
+        this.snapshot = snapshot;
+        this.changedFeatures = Set.copyOf(changedFeatures);
+        this.affectedApplications = Set.copyOf(affectedApplications);
+    }
+
+    public FeatureFlagSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public Set<String> getChangedFeatures() {
+        return changedFeatures;
+    }
+
+    public Set<String> getAffectedApplications() {
+        return affectedApplications;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.integration;
+
+import io.getunleash.DefaultUnleash;
+import io.getunleash.FeatureToggle;
+import io.getunleash.Segment;
+import io.getunleash.Unleash;
+import io.getunleash.UnleashContext;
+import io.getunleash.repository.FeatureCollection;
+import io.getunleash.repository.IFeatureRepository;
+import io.getunleash.util.UnleashConfig;
+import io.getunleash.util.UnleashScheduledExecutor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Evaluates flags for caller-supplied contexts against a captured
+ * {@link FeatureCollection} instead of the toggles the live client holds, so a
+ * batch of contexts sees one consistent set of definitions even if Unleash
+ * fetches new ones halfway through.
+ * <p>
+ * The strategies are Unleash's own: a {@link DefaultUnleash} reads its toggles
+ * and segments from the collection pinned to the calling thread for the
+ * duration of {@link #evaluate}. It never fetches, and its metrics and events
+ * are dropped rather than scheduled per evaluation.
+ */
+public class PinnedFeatureEvaluator {
+
+    private final PinnedRepository repository = new PinnedRepository();
+    private final Unleash unleash;
+
+    /**
+     * @param config settings of the application's client; given its own instance
+     *               id so Unleash does not count it as a second client
+     */
+    public PinnedFeatureEvaluator(UnleashConfig.Builder config) {
+        this.unleash = new DefaultUnleash(config
+            .disableMetrics()
+            .disablePolling()
+            .scheduledExecutor(new InertExecutor())
+            .build(), repository);
+    }
+
+    public Map<String, Boolean> evaluate(FeatureCollection features, List<String> featureNames,
+                                         UnleashContext context) {
+        repository.pinned.set(features);
+        try {
+            Map<String, Boolean> enabled = new HashMap<>();
+            for (String featureName : featureNames) {
+                enabled.put(featureName, unleash.isEnabled(featureName, context));
+            }
+            return enabled;
+        } finally {
+            repository.pinned.remove();
+        }
+    }
+
+    private static final class PinnedRepository implements IFeatureRepository {
+
+        private final ThreadLocal<FeatureCollection> pinned = new ThreadLocal<>();
+
+        @Override
+        public FeatureToggle getToggle(String name) {
+            return pinned.get().getToggle(name);
+        }
+
+        @Override
+        public List<String> getFeatureNames() {
+            List<String> names = new ArrayList<>();
+            pinned.get().getToggleCollection().getFeatures().forEach(toggle -> names.add(toggle.getName()));
+            return names;
+        }
+
+        @Override
+        public Segment getSegment(Integer id) {
+            return pinned.get().getSegment(id);
+        }
+    }
+
+    // Runs nothing: there is nothing to fetch, and evaluation events and
+    // metrics of a pinned evaluation have no subscriber
+    private static final class InertExecutor implements UnleashScheduledExecutor {
+
+        @Override
+        public ScheduledFuture<?> setInterval(Runnable command, long initialDelaySec, long periodSec) {
+            return null;
+        }
+
+        @Override
+        public Future<Void> scheduleOnce(Runnable runnable) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
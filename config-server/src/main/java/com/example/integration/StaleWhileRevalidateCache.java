@@ -0,0 +1,168 @@
+package com.example.integration;
+
+import com.example.repository.BoundedLruMap;
+import com.example.repository.SingleFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Last-good-value cache in front of a slow or flaky backend.
+ * <ul>
+ *   <li>A fresh value is returned as is.</li>
+ *   <li>A stale value (older than the TTL) is still returned immediately, and one
+ *   background reload per key is started to replace it.</li>
+ *   <li>Only successful loads are stored. A failed load leaves the previous value
+ *   in place, and with no previous value the caller gets nothing, which is not
+ *   remembered either.</li>
+ *   <li>All loads go through the backend's {@link CircuitBreaker}; while it is open
+ *   callers get the last good value (or nothing) without waiting on the backend.</li>
+ * </ul>
+ * The loader signals failure by throwing.
+ */
+public class StaleWhileRevalidateCache<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleWhileRevalidateCache.class);
+
+    private final String name;
+    private final Function<K, V> loader;
+    private final CircuitBreaker circuitBreaker;
+    private final long ttlNanos;
+    private final Executor revalidationExecutor;
+
+    private final BoundedLruMap<K, Entry<V>> entries;
+    private final Set<K> revalidating = ConcurrentHashMap.newKeySet();
+    private final SingleFlight<K, V> loads = new SingleFlight<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public StaleWhileRevalidateCache(String name, Function<K, V> loader, CircuitBreaker circuitBreaker,
+                                     Duration ttl, int maxEntries, Executor revalidationExecutor) {
+        this.name = name;
+        this.loader = loader;
+        this.circuitBreaker = circuitBreaker;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new BoundedLruMap<>(maxEntries);
+        this.revalidationExecutor = revalidationExecutor;
+    }
+
+    public Optional<V> get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                hits.incrementAndGet();
+            } else {
+                staleHits.incrementAndGet();
+                revalidate(key);
+            }
+            return Optional.of(entry.value);
+        }
+
+        misses.incrementAndGet();
+        if (!circuitBreaker.allowRequest()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(loads.execute(key, () -> load(key)));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void revalidate(K key) {
+        if (!revalidating.add(key)) {
+            return;
+        }
+        if (!circuitBreaker.allowRequest()) {
+            revalidating.remove(key);
+            return;
+        }
+        try {
+            revalidationExecutor.execute(() -> {
+                try {
+                    loads.execute(key, () -> load(key));
+                } catch (RuntimeException e) {
+                    logger.debug("Revalidation of {} '{}' failed, keeping the last good value", name, key);
+                } finally {
+                    revalidating.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            revalidating.remove(key);
+            circuitBreaker.recordFailure(e);
+        }
+    }
+
+    private V load(K key) {
+        try {
+            V value = loader.apply(key);
+            circuitBreaker.recordSuccess();
+            store(key, value);
+            return value;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            circuitBreaker.recordFailure(e);
+            logger.warn("Loading {} '{}' failed: {}", name, key, e.getMessage());
+            throw e;
+        }
+    }
+
+    private void store(K key, V value) {
+        entries.put(key, new Entry<>(value));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getEvictions() {
+        return entries.getEvictions();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt = System.nanoTime();
+
+        Entry(V value) {
+            this.value = value;
+        }
+    }
+}
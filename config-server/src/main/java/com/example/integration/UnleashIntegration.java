@@ -1,71 +1,153 @@
 package com.example.integration;
 
+import com.example.metrics.BackendCalls;
+import io.getunleash.ActivationStrategy;
+import io.getunleash.Constraint;
+import io.getunleash.FeatureToggle;
+import io.getunleash.Segment;
 import io.getunleash.Unleash;
 import io.getunleash.UnleashContext;
+import io.getunleash.repository.FeatureCollection;
+import io.getunleash.repository.SegmentCollection;
+import io.getunleash.repository.ToggleCollection;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class UnleashIntegration {
-    
+
     @Autowired
     private Unleash unleash;
-    
-    @Cacheable(value = "featureFlags", key = "#applicationName + '-' + #profile")
+
+    @Autowired
+    private FeatureFlagRegistry registry;
+
+    @Autowired
+    private FeatureFlagSnapshotManager snapshotManager;
+
+    @Autowired
+    private BackendCalls backendCalls;
+
+    @Autowired
+    private PinnedFeatureEvaluator pinnedEvaluator;
+
+    /**
+     * Flags for the application, served from the precompiled snapshot that is
+     * rebuilt whenever Unleash fetches new toggles.
+     */
     public Map<String, Boolean> getFeatureFlags(String applicationName, String profile) {
-        Map<String, Boolean> features = new HashMap<>();
-        
-        UnleashContext context = UnleashContext.builder()
-            //.appName(applicationName)
-            //.environment(profile)
-            .build();
-        
-        // Get all feature flags for the application
-        List<String> featureNames = getFeatureNamesForApplication(applicationName);
-        
+        return evaluateAll(applicationName, profile);
+    }
+
+    /**
+     * Bulk evaluation of every flag registered for the application. The returned
+     * map is immutable and shared between callers.
+     */
+    public Map<String, Boolean> evaluateAll(String applicationName, String profile) {
+        return snapshotManager.evaluateAll(applicationName, profile);
+    }
+
+    /**
+     * Evaluates flags against a caller-supplied context. Unlike the snapshot
+     * lookups this runs the Unleash strategies, against the toggles Unleash
+     * currently holds in memory.
+     */
+    public Map<String, Boolean> evaluate(List<String> featureNames, UnleashContext context) {
+        return backendCalls.record("unleash", "evaluate", () -> {
+            Map<String, Boolean> features = new HashMap<>();
+            for (String featureName : featureNames) {
+                features.put(featureName, unleash.isEnabled(featureName, context));
+            }
+            return features;
+        });
+    }
+
+    /**
+     * The flags' definitions and the segments as they stand now, for evaluating
+     * many contexts against one consistent set with
+     * {@link #evaluate(FeatureCollection, List, UnleashContext)}.
+     */
+    public FeatureCollection captureFeatures(List<String> featureNames) {
+        List<FeatureToggle> toggles = new ArrayList<>();
         for (String featureName : featureNames) {
-            features.put(featureName, unleash.isEnabled(featureName, context));
+            toggles.add(definition(featureName));
         }
-        
-        return features;
+        return new FeatureCollection(new ToggleCollection(toggles), snapshotManager.getSegments());
+    }
+
+    /**
+     * Evaluates flags against a caller-supplied context and toggles captured
+     * earlier, regardless of what Unleash has fetched since.
+     */
+    public Map<String, Boolean> evaluate(FeatureCollection features, List<String> featureNames,
+                                         UnleashContext context) {
+        return backendCalls.record("unleash", "evaluate",
+            () -> pinnedEvaluator.evaluate(features, featureNames, context));
+    }
+
+    public List<String> getFeatureNames(String applicationName) {
+        return registry.getFeatureNames(applicationName);
+    }
+
+    public boolean isEnabled(String featureName) {
+        return snapshotManager.isEnabled(featureName);
     }
-    
-    private List<String> getFeatureNamesForApplication(String applicationName) {
-        // Define feature flags per application
-        if ("service-a".equals(applicationName)) {
-            return List.of(
-                "service-a.new-feature",
-                "service-a.beta-feature",
-                "service-a.dark-mode",
-                "service-a.advanced-analytics",
-                "service-a.use-new-algorithm",
-                "service-a.enhanced-processing",
-                "service-a.caching-enabled",
-                "service-a.rate-limiting"
-            );
-        } else if ("service-b".equals(applicationName)) {
-            return List.of(
-                "service-b.caching",
-                "service-b.rate-limit",
-                "service-b.new-endpoint",
-                "service-b.v2-api",
-                "service-b.async-processing",
-                "service-b.batch-mode",
-                "service-b.premium-features",
-                "service-b.debug-mode"
-            );
+
+    /**
+     * Toggle definitions (strategies, parameters, constraints) for the application's
+     * flags, so clients can evaluate them locally. Flags Unleash has no definition
+     * for are described by their current snapshot value.
+     * <p>
+     * Segments are resolved here: each strategy carries its segments' constraints
+     * in its own list and no segment ids, since clients have no segments to look
+     * them up in. A segment Unleash did not send adds a constraint nothing
+     * matches, which is how the SDK treats it too.
+     */
+    public List<FeatureToggle> getFeatureDefinitions(String applicationName, String profile) {
+        SegmentCollection segments = snapshotManager.getSegments();
+        List<FeatureToggle> definitions = new ArrayList<>();
+        for (String featureName : registry.getFeatureNames(applicationName)) {
+            definitions.add(inlineSegments(definition(featureName), segments));
         }
-        else if ("spring-cloud-integration".equals(applicationName)) {
-            return List.of(
-                    "new-profile-feature",
-                    "beta-feature"
-            );
+        return definitions;
+    }
+
+    private FeatureToggle definition(String featureName) {
+        return unleash.more().getFeatureToggleDefinition(featureName)
+            .orElseGet(() -> new FeatureToggle(featureName, snapshotManager.isEnabled(featureName),
+                List.of(new ActivationStrategy("default", Map.of()))));
+    }
+
+    private static FeatureToggle inlineSegments(FeatureToggle toggle, SegmentCollection segments) {
+        if (toggle.getStrategies() == null
+            || toggle.getStrategies().stream().allMatch(UnleashIntegration::hasNoSegments)) {
+            return toggle;
         }
-        return List.of();
+        List<ActivationStrategy> strategies = new ArrayList<>();
+        for (ActivationStrategy strategy : toggle.getStrategies()) {
+            if (hasNoSegments(strategy)) {
+                strategies.add(strategy);
+                continue;
+            }
+            List<Constraint> constraints = new ArrayList<>();
+            if (strategy.getConstraints() != null) {
+                constraints.addAll(strategy.getConstraints());
+            }
+            for (Integer segmentId : strategy.getSegments()) {
+                Segment segment = segments.getSegment(segmentId);
+                constraints.addAll((segment != null ? segment : Segment.DENY_SEGMENT).getConstraints());
+            }
+            strategies.add(new ActivationStrategy(strategy.getName(), strategy.getParameters(), constraints, List.of()));
+        }
+        return new FeatureToggle(toggle.getName(), toggle.isEnabled(), strategies, toggle.getVariants());
+    }
+
+    private static boolean hasNoSegments(ActivationStrategy strategy) {
+        return strategy.getSegments() == null || strategy.getSegments().isEmpty();
     }
 }
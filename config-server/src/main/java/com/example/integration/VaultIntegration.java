@@ -3,14 +3,27 @@ package com.example.integration;
 import com.bettercloud.vault.Vault;
 import com.bettercloud.vault.VaultException;
 import com.bettercloud.vault.response.LogicalResponse;
+import com.example.config.VirtualThreadConfig;
+import com.example.metrics.BackendCalls;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class VaultIntegration {
@@ -20,8 +33,57 @@ public class VaultIntegration {
     @Autowired(required = true)
     private Vault vault;
 
-    @Cacheable(value = "vaultSecrets", key = "#applicationName + '-' + #profile")
+    // Runs Vault reads on virtual threads in virtual-thread mode, inline otherwise
+    @Autowired
+    @Qualifier(VirtualThreadConfig.INTEGRATION_EXECUTOR)
+    private TaskExecutor integrationExecutor;
+
+    @Autowired
+    private BackendCalls backendCalls;
+
+    @Value("${config.integration.vault.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${config.integration.vault.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${config.integration.vault.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${config.integration.vault.max-entries:1024}")
+    private int maxEntries;
+
+    private ExecutorService revalidationExecutor;
+    private StaleWhileRevalidateCache<List<String>, Map<String, Object>> secretsCache;
+
+    @PostConstruct
+    public void init() {
+        revalidationExecutor = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "vault-revalidate");
+            t.setDaemon(true);
+            return t;
+        });
+        CircuitBreaker circuitBreaker = new CircuitBreaker("vault", failureThreshold, Duration.ofSeconds(openSeconds));
+        secretsCache = new StaleWhileRevalidateCache<>("vaultSecrets",
+            key -> backendCalls.record("vault", "readSecrets", () -> readSecrets(key.get(0), key.get(1))), circuitBreaker,
+            Duration.ofSeconds(ttlSeconds), maxEntries, revalidationExecutor);
+    }
+
+    /**
+     * Secrets for the application and profile. Served from the last successful
+     * read; once that is older than the TTL it is refreshed in the background
+     * while callers keep getting it. When Vault has never answered for this path
+     * (or its circuit is open) the result is an empty map, which is not cached.
+     */
     public Map<String, Object> getSecrets(String applicationName, String profile) {
+        return secretsCache.get(List.of(applicationName, profile)).orElse(Map.of());
+    }
+
+    public StaleWhileRevalidateCache<List<String>, Map<String, Object>> getSecretsCache() {
+        return secretsCache;
+    }
+
+    private Map<String, Object> readSecrets(String applicationName, String profile) {
         Map<String, Object> secrets = new HashMap<>();
 
         if (vault == null) {
@@ -30,16 +92,18 @@ public class VaultIntegration {
         }
 
         try {
+            // Common secrets are read alongside the application's own path
+            String commonPath = String.format("secret/data/common/%s", profile);
+            CompletableFuture<LogicalResponse> commonRead = readAsync(commonPath);
+
             // Read secrets from Vault
             String path = String.format("secret/%s/%s", applicationName, profile);
-            System.out.println("path" +path);
             logger.debug("Reading secrets from Vault path: {}", path);
 
             LogicalResponse response = vault.logical().read(path);
 
             if (response != null && response.getData() != null) {
                 // Vault v2 KV store returns data under "data" key
-                System.out.println("response" +response.getData());
                 Object dataObj = response.getData();
                 if (dataObj instanceof Map) {
                     Map<String, Object> data = (Map<String, Object>) dataObj;
@@ -51,10 +115,9 @@ public class VaultIntegration {
             }
 
             // Also read common secrets
-            String commonPath = String.format("secret/data/common/%s", profile);
             logger.debug("Reading common secrets from Vault path: {}", commonPath);
 
-            LogicalResponse commonResponse = vault.logical().read(commonPath);
+            LogicalResponse commonResponse = await(commonRead);
 
             if (commonResponse != null && commonResponse.getData() != null) {
                 Object commonDataObj = commonResponse.getData().get("data");
@@ -68,11 +131,36 @@ public class VaultIntegration {
         } catch (VaultException e) {
             logger.error("Error reading secrets from Vault for {}/{}: {}",
                     applicationName, profile, e.getMessage());
-            // Return empty secrets on error rather than failing
-        } catch (Exception e) {
-            logger.error("Unexpected error reading secrets from Vault: {}", e.getMessage());
+            // Fail the load so the last good secrets stay in place
+            throw new IllegalStateException("Vault read failed for " + applicationName + "/" + profile, e);
         }
 
-        return secrets;
+        return Collections.unmodifiableMap(secrets);
+    }
+
+    private CompletableFuture<LogicalResponse> readAsync(String path) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return vault.logical().read(path);
+            } catch (VaultException e) {
+                throw new CompletionException(e);
+            }
+        }, integrationExecutor);
+    }
+
+    private static LogicalResponse await(CompletableFuture<LogicalResponse> read) throws VaultException {
+        try {
+            return read.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof VaultException) {
+                throw (VaultException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        revalidationExecutor.shutdownNow();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Times calls into a backend (Git, Vault, Unleash). Each call is recorded in
+ * {@code config.backend.requests}, tagged with the backend, the operation and an
+ * outcome of {@code success} or {@code error}, so error rates follow from the
+ * counts. {@code config.backend.in-flight} gauges calls in progress.
+ * <p>
+ * Backend and operation names come from the code, so there is one timer per
+ * combination; each is registered on first use and looked up after that.
+ */
+@Component
+public class BackendCalls {
+
+    static final String REQUESTS = "config.backend.requests";
+    static final String IN_FLIGHT = "config.backend.in-flight";
+
+    private final MeterRegistry registry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public BackendCalls(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T record(String backend, String operation, Supplier<T> call) {
+        AtomicInteger running = inFlight.computeIfAbsent(backend, this::registerInFlight);
+        running.incrementAndGet();
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            running.decrementAndGet();
+            timer(backend, operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String backend, String operation, String outcome) {
+        String key = backend + '|' + operation + '|' + outcome;
+        Timer timer = timers.get(key);
+        return timer != null ? timer : timers.computeIfAbsent(key, k -> Timer.builder(REQUESTS)
+            .description("Calls from config-server into its backends")
+            .tags("backend", backend, "operation", operation, "outcome", outcome)
+            .register(registry));
+    }
+
+    private AtomicInteger registerInFlight(String backend) {
+        AtomicInteger running = new AtomicInteger();
+        Gauge.builder(IN_FLIGHT, running, AtomicInteger::get)
+            .description("Backend calls currently in progress")
+            .tag("backend", backend)
+            .register(registry);
+        return running;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.metrics;
+
+import com.example.controller.AdmissionControlFilter;
+import com.example.controller.SerializedResponseCache;
+import com.example.integration.CircuitBreaker;
+import com.example.integration.FeatureFlagSnapshotManager;
+import com.example.integration.StaleWhileRevalidateCache;
+import com.example.integration.VaultIntegration;
+import com.example.repository.CachingEnvironmentRepository;
+import com.example.repository.MaterializedEnvironmentRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the counters the integration layer already keeps as Micrometer
+ * meters: {@code cache.gets}/{@code cache.evictions}/{@code cache.size} per cache
+ * (same names as Spring's cache metrics), the feature flag snapshot, circuit
+ * breaker state and admission control decisions. Backend call timers come from
+ * {@link BackendCalls}.
+ * <p>
+ * Meters are registered once the context is ready, so binding them never forces
+ * the repositories to initialise early.
+ */
+@Component
+public class IntegrationMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntegrationMetrics.class);
+
+    private final MeterRegistry registry;
+    private final ApplicationContext applicationContext;
+    private final ObjectProvider<MaterializedEnvironmentRepository> materializedEnvironments;
+    private final ObjectProvider<SerializedResponseCache> responseCache;
+    private final ObjectProvider<VaultIntegration> vaultIntegration;
+    private final ObjectProvider<FeatureFlagSnapshotManager> featureFlags;
+    private final ObjectProvider<AdmissionControlFilter> admissionControl;
+
+    public IntegrationMetrics(MeterRegistry registry, ApplicationContext applicationContext,
+                              ObjectProvider<MaterializedEnvironmentRepository> materializedEnvironments,
+                              ObjectProvider<SerializedResponseCache> responseCache,
+                              ObjectProvider<VaultIntegration> vaultIntegration,
+                              ObjectProvider<FeatureFlagSnapshotManager> featureFlags,
+                              ObjectProvider<AdmissionControlFilter> admissionControl) {
+        this.registry = registry;
+        this.applicationContext = applicationContext;
+        this.materializedEnvironments = materializedEnvironments;
+        this.responseCache = responseCache;
+        this.vaultIntegration = vaultIntegration;
+        this.featureFlags = featureFlags;
+        this.admissionControl = admissionControl;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bind() {
+        for (EnvironmentRepository repository : applicationContext.getBeansOfType(EnvironmentRepository.class).values()) {
+            if (repository instanceof CachingEnvironmentRepository) {
+                CachingEnvironmentRepository caching = (CachingEnvironmentRepository) repository;
+                bindStats("environment", caching, caching::getStats);
+            }
+        }
+        materializedEnvironments.ifAvailable(repository ->
+            bindStats("materializedEnvironment", repository, repository::getStats));
+        responseCache.ifAvailable(cache -> bindStats("responses", cache, cache::getStats));
+        vaultIntegration.ifAvailable(vault -> bindStaleWhileRevalidate(vault.getSecretsCache()));
+        featureFlags.ifAvailable(this::bindFeatureFlags);
+        admissionControl.ifAvailable(this::bindAdmissionControl);
+        logger.debug("Integration metrics registered");
+    }
+
+    private <T> void bindStats(String cacheName, T cache, Supplier<Map<String, Object>> stats) {
+        FunctionCounter.builder("cache.gets", cache, c -> stat(stats, "hits"))
+            .tags("cache", cacheName, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> stat(stats, "misses"))
+            .tags("cache", cacheName, "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> stat(stats, "evictions"))
+            .tag("cache", cacheName).register(registry);
+        Gauge.builder("cache.size", cache, c -> stat(stats, "entries"))
+            .tag("cache", cacheName).register(registry);
+        FunctionCounter.builder("cache.loads.coalesced", cache, c -> stat(stats, "coalescedLoads"))
+            .description("Cache misses answered by another caller's in-flight load")
+            .tag("cache", cacheName).register(registry);
+    }
+
+    private void bindStaleWhileRevalidate(StaleWhileRevalidateCache<?, ?> cache) {
+        String name = cache.getName();
+        FunctionCounter.builder("cache.gets", cache, StaleWhileRevalidateCache::getHits)
+            .tags("cache", name, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, StaleWhileRevalidateCache::getStaleHits)
+            .tags("cache", name, "result", "stale").register(registry);
+        FunctionCounter.builder("cache.gets", cache, StaleWhileRevalidateCache::getMisses)
+            .tags("cache", name, "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, StaleWhileRevalidateCache::getEvictions)
+            .tag("cache", name).register(registry);
+        FunctionCounter.builder("cache.load.failures", cache, StaleWhileRevalidateCache::getFailures)
+            .description("Backend loads that failed; failures are never cached")
+            .tag("cache", name).register(registry);
+        Gauge.builder("cache.size", cache, StaleWhileRevalidateCache::size)
+            .tag("cache", name).register(registry);
+
+        CircuitBreaker circuitBreaker = cache.getCircuitBreaker();
+        Gauge.builder("config.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+            .description("0 = closed, 1 = open, 2 = half-open")
+            .tag("backend", circuitBreaker.getName()).register(registry);
+        FunctionCounter.builder("config.circuit.rejected", circuitBreaker, CircuitBreaker::getRejected)
+            .description("Calls rejected while the circuit was open")
+            .tag("backend", circuitBreaker.getName()).register(registry);
+    }
+
+    private void bindFeatureFlags(FeatureFlagSnapshotManager manager) {
+        FunctionCounter.builder("cache.gets", manager, FeatureFlagSnapshotManager::getSnapshotHits)
+            .tags("cache", "featureFlags", "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", manager, FeatureFlagSnapshotManager::getSnapshotMisses)
+            .tags("cache", "featureFlags", "result", "miss").register(registry);
+        Gauge.builder("cache.size", manager, m -> m.getSnapshot().size())
+            .tag("cache", "featureFlags").register(registry);
+        Gauge.builder("feature.flags.snapshot.version", manager, m -> m.getSnapshot().getVersion())
+            .register(registry);
+        Gauge.builder("feature.flags.snapshot.age", manager,
+                m -> (System.currentTimeMillis() - m.getSnapshot().getBuiltAt().toEpochMilli()) / 1000d)
+            .baseUnit("seconds").register(registry);
+    }
+
+    private void bindAdmissionControl(AdmissionControlFilter filter) {
+        for (String result : new String[] {"admitted", "rateLimited", "overloaded"}) {
+            FunctionCounter.builder("config.admission.requests", filter, f -> number(f.getStats().get(result)))
+                .tag("result", result).register(registry);
+        }
+        Gauge.builder("config.admission.in-flight", filter, f -> number(f.getStats().get("inFlight")))
+            .register(registry);
+        Gauge.builder("config.admission.clients", filter, f -> number(f.getStats().get("clients")))
+            .register(registry);
+    }
+
+    private static double stat(Supplier<Map<String, Object>> stats, String name) {
+        return number(stats.get().get(name));
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Map holding at most a fixed number of entries, evicting the least recently
+ * used one when a put goes over the limit. Lookups and puts both count as a use.
+ * <p>
+ * An access-ordered {@link LinkedHashMap} behind a lock, so eviction is O(1)
+ * rather than a scan for the oldest entry. The lock is held only for the map
+ * operation itself (and the eviction callback), so callers load values outside
+ * it. A {@link ReentrantLock} rather than {@code synchronized}, so virtual threads
+ * do not pin while waiting.
+ */
+public class BoundedLruMap<K, V> {
+
+    private final int maxEntries;
+    private final BiConsumer<? super K, ? super V> onEviction;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, V> entries;
+    private long evictions;
+
+    public BoundedLruMap(int maxEntries) {
+        this(maxEntries, (key, value) -> { });
+    }
+
+    /**
+     * @param onEviction called, under the lock, with each entry dropped for space;
+     *                   not called for entries that are replaced or cleared
+     */
+    public BoundedLruMap(int maxEntries, BiConsumer<? super K, ? super V> onEviction) {
+        this.maxEntries = maxEntries;
+        this.onEviction = onEviction;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                evictions++;
+                onEviction.accept(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public V get(K key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the value, evicting the least recently used entry if the map is full.
+     *
+     * @return the value previously stored for the key, or {@code null}
+     */
+    public V put(K key, V value) {
+        lock.lock();
+        try {
+            return entries.put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copy of the current values, least recently used first.
+     */
+    public List<V> values() {
+        lock.lock();
+        try {
+            return new ArrayList<>(entries.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copy of the current entries, least recently used first.
+     */
+    public Map<K, V> snapshot() {
+        lock.lock();
+        try {
+            return new LinkedHashMap<>(entries);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Entries dropped so far to stay within the limit.
+     */
+    public long getEvictions() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
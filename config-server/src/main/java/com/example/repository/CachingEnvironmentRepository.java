@@ -0,0 +1,175 @@
+package com.example.repository;
+
+import com.example.metrics.BackendCalls;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.core.Ordered;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorates a Git-backed {@link EnvironmentRepository} and keeps the parsed
+ * {@link Environment} per (application, profile, label) together with the commit
+ * it was read from.
+ * <p>
+ * Every lookup still resolves the label to a commit through
+ * {@link SearchPathLocator#getLocations}, but as long as that commit has not moved
+ * the cached result is returned without re-reading or re-parsing any YAML.
+ * Callers get their own copy of the property maps, so the cached instance is
+ * never mutated.
+ */
+public class CachingEnvironmentRepository implements EnvironmentRepository, SearchPathLocator, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingEnvironmentRepository.class);
+
+    private final EnvironmentRepository delegate;
+    private final SearchPathLocator locator;
+    private final BackendCalls backendCalls;
+    private final BoundedLruMap<CacheKey, CacheEntry> cache;
+    private final SingleFlight<CacheKey, Environment> loads = new SingleFlight<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public <T extends EnvironmentRepository & SearchPathLocator> CachingEnvironmentRepository(
+            T delegate, int maxEntries, BackendCalls backendCalls) {
+        this.delegate = delegate;
+        this.locator = delegate;
+        this.cache = new BoundedLruMap<>(maxEntries);
+        this.backendCalls = backendCalls;
+    }
+
+    public EnvironmentRepository getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        CacheKey key = new CacheKey(application, profile, label, includeOrigin);
+        String commit = resolveCommit(application, profile, label);
+
+        CacheEntry entry = cache.get(key);
+        if (commit != null && entry != null && commit.equals(entry.commit)) {
+            hits.incrementAndGet();
+            return copyOf(entry.environment);
+        }
+
+        misses.incrementAndGet();
+        // Concurrent misses share one read; each caller gets its own copy
+        return copyOf(loads.execute(key, () -> load(key, commit)));
+    }
+
+    private Environment load(CacheKey key, String commit) {
+        Environment environment = backendCalls.record("git", "read",
+            () -> delegate.findOne(key.application, key.profile, key.label, key.includeOrigin));
+        // The commit reported by the read itself is authoritative; the label may
+        // have moved between resolving it and reading the files.
+        String readCommit = environment.getVersion() != null ? environment.getVersion() : commit;
+        if (readCommit != null) {
+            cache.put(key, new CacheEntry(readCommit, copyOf(environment)));
+        }
+        return environment;
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        return locator.getLocations(application, profile, label);
+    }
+
+    @Override
+    public int getOrder() {
+        return delegate instanceof Ordered ? ((Ordered) delegate).getOrder() : Ordered.LOWEST_PRECEDENCE;
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("repository", delegate.getClass().getSimpleName());
+        stats.put("entries", cache.size());
+        stats.put("maxEntries", cache.getMaxEntries());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", cache.getEvictions());
+        stats.put("coalescedLoads", loads.getShared());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+
+    public void clear() {
+        cache.clear();
+        logger.info("Environment cache cleared");
+    }
+
+    private String resolveCommit(String application, String profile, String label) {
+        try {
+            return locator.getLocations(application, profile, label).getVersion();
+        } catch (Exception e) {
+            logger.debug("Could not resolve commit for {}/{}/{}: {}", application, profile, label, e.getMessage());
+            return null;
+        }
+    }
+
+    static Environment copyOf(Environment source) {
+        Environment copy = new Environment(source.getName(), source.getProfiles(), source.getLabel(),
+            source.getVersion(), source.getState());
+        for (PropertySource propertySource : source.getPropertySources()) {
+            copy.add(new PropertySource(propertySource.getName(), new LinkedHashMap<>(propertySource.getSource())));
+        }
+        return copy;
+    }
+
+    private static final class CacheKey {
+        private final String application;
+        private final String profile;
+        private final String label;
+        private final boolean includeOrigin;
+
+        CacheKey(String application, String profile, String label, boolean includeOrigin) {
+            this.application = application;
+            this.profile = profile;
+            this.label = label;
+            this.includeOrigin = includeOrigin;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey)) return false;
+            CacheKey that = (CacheKey) o;
+            return includeOrigin == that.includeOrigin &&
+                   Objects.equals(application, that.application) &&
+                   Objects.equals(profile, that.profile) &&
+                   Objects.equals(label, that.label);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(application, profile, label, includeOrigin);
+        }
+    }
+
+    private static final class CacheEntry {
+        private final String commit;
+        private final Environment environment;
+
+        CacheEntry(String commit, Environment environment) {
+            this.commit = commit;
+            this.environment = environment;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.repository;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /actuator/environmentcache}: hit/miss statistics of every
+ * {@link CachingEnvironmentRepository}, and a DELETE to drop cached entries.
+ */
+@Endpoint(id = "environmentcache")
+public class EnvironmentCacheEndpoint {
+
+    private final List<CachingEnvironmentRepository> repositories;
+
+    public EnvironmentCacheEndpoint(List<CachingEnvironmentRepository> repositories) {
+        this.repositories = repositories;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return Map.of("repositories", repositories.stream()
+            .map(CachingEnvironmentRepository::getStats)
+            .collect(Collectors.toList()));
+    }
+
+    @DeleteOperation
+    public void clear() {
+        repositories.forEach(CachingEnvironmentRepository::clear);
+    }
+}
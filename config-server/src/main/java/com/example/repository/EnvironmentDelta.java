@@ -0,0 +1,110 @@
+package com.example.repository;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keys added, modified and removed between two materialized versions of the
+ * same environment. When the base version is unknown the delta is "full" and
+ * carries every property instead.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class EnvironmentDelta {
+
+    private final String application;
+    private final String profile;
+    private final String label;
+    private final String since;
+    private final String version;
+    private final boolean full;
+    private final Map<String, Object> properties;
+    private final Map<String, Object> added;
+    private final Map<String, Object> modified;
+    private final List<String> removed;
+
+    private EnvironmentDelta(MaterializedEnvironment current, String since, boolean full,
+                             Map<String, Object> properties, Map<String, Object> added,
+                             Map<String, Object> modified, List<String> removed) {
+        this.application = current.getApplication();
+        this.profile = current.getProfile();
+        this.label = current.getLabel();
+        this.since = since;
+        this.version = current.getVersion();
+        this.full = full;
+        this.properties = properties;
+        this.added = added;
+        this.modified = modified;
+        this.removed = removed;
+    }
+
+    public static EnvironmentDelta between(MaterializedEnvironment base, MaterializedEnvironment current,
+                                           KeyProjection projection) {
+        Map<String, Object> added = new LinkedHashMap<>();
+        Map<String, Object> modified = new LinkedHashMap<>();
+        List<String> removed = new ArrayList<>();
+        Map<String, Object> before = base.project(projection);
+        Map<String, Object> after = current.project(projection);
+        after.forEach((name, value) -> {
+            if (!before.containsKey(name)) {
+                added.put(name, value);
+            } else if (!Objects.equals(before.get(name), value)) {
+                modified.put(name, value);
+            }
+        });
+        for (String name : before.keySet()) {
+            if (!after.containsKey(name)) {
+                removed.add(name);
+            }
+        }
+        return new EnvironmentDelta(current, base.getVersion(), false, null, added, modified, removed);
+    }
+
+    public static EnvironmentDelta full(MaterializedEnvironment current, String since, KeyProjection projection) {
+        return new EnvironmentDelta(current, since, true, current.project(projection), null, null, null);
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getSince() {
+        return since;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    public Map<String, Object> getAdded() {
+        return added;
+    }
+
+    public Map<String, Object> getModified() {
+        return modified;
+    }
+
+    public List<String> getRemoved() {
+        return removed;
+    }
+}
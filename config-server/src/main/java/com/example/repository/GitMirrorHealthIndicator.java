@@ -0,0 +1,28 @@
+package com.example.repository;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * DOWN until the Git mirror has completed its warm-up. Included in the readiness
+ * group, so the readiness probe only passes once configuration can be served
+ * from the local clone.
+ */
+@Component("gitMirror")
+@ConditionalOnProperty(name = "config.git-mirror.enabled", havingValue = "true", matchIfMissing = true)
+public class GitMirrorHealthIndicator implements HealthIndicator {
+
+    private final GitMirrorManager mirrorManager;
+
+    public GitMirrorHealthIndicator(GitMirrorManager mirrorManager) {
+        this.mirrorManager = mirrorManager;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = mirrorManager.isWarmedUp() ? Health.up() : Health.outOfService();
+        return builder.withDetails(mirrorManager.getStatus()).build();
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.eclipse.jgit.api.FetchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.FetchResult;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.JGitEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.MultipleJGitEnvironmentRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the local clones behind the JGit environment repositories up to date from
+ * a background thread, so request threads never talk to the Git remote.
+ * <p>
+ * The network fetch runs without holding the repository lock. Only publishing the
+ * fetched heads (moving local branches, resetting the checked-out one) happens
+ * under the same monitor that {@code findOne} and {@code getLocations} synchronize
+ * on, so a request sees either the old head or the new one, never a mix. The
+ * repositories' own inline pull is held off by keeping their last refresh current.
+ */
+@Component
+@ConditionalOnProperty(name = "config.git-mirror.enabled", havingValue = "true", matchIfMissing = true)
+public class GitMirrorManager implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitMirrorManager.class);
+
+    // Long enough that JGitEnvironmentRepository never decides to pull on its own
+    // while the mirror keeps its last refresh timestamp current.
+    private static final int INLINE_REFRESH_RATE_SECONDS = 86400;
+
+    private static final String REMOTE = "origin";
+
+    private final ApplicationContext applicationContext;
+    private final long fetchIntervalSeconds;
+    private final ScheduledExecutorService fetchExecutor;
+
+    private volatile List<JGitEnvironmentRepository> repositories = List.of();
+    private volatile boolean warmedUp = false;
+    private volatile Instant lastFetch;
+    private volatile String lastError;
+    private volatile Map<String, String> heads = Map.of();
+
+    public GitMirrorManager(ApplicationContext applicationContext,
+                            @Value("${config.git-mirror.fetch-interval-seconds:30}") long fetchIntervalSeconds) {
+        this.applicationContext = applicationContext;
+        this.fetchIntervalSeconds = fetchIntervalSeconds;
+        this.fetchExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "git-mirror");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Startup warm-up: clones (or fetches) every repository before the application
+     * reports ready, then starts the periodic fetch.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        repositories = findRepositories();
+        for (JGitEnvironmentRepository repository : repositories) {
+            repository.setRefreshRate(INLINE_REFRESH_RATE_SECONDS);
+        }
+        warmUp();
+        fetchExecutor.scheduleWithFixedDelay(this::fetchAll, fetchIntervalSeconds, fetchIntervalSeconds, TimeUnit.SECONDS);
+        logger.info("Git mirror started for {} repositories, fetching every {}s", repositories.size(), fetchIntervalSeconds);
+    }
+
+    /**
+     * Requests an immediate background fetch, e.g. from a push webhook.
+     */
+    public void requestFetch() {
+        fetchExecutor.execute(this::fetchAll);
+    }
+
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("warmedUp", warmedUp);
+        status.put("repositories", repositories.size());
+        status.put("fetchIntervalSeconds", fetchIntervalSeconds);
+        status.put("lastFetch", lastFetch != null ? lastFetch.toString() : "never");
+        if (lastError != null) {
+            status.put("lastError", lastError);
+        }
+        status.put("heads", heads);
+        return status;
+    }
+
+    private void warmUp() {
+        try {
+            for (JGitEnvironmentRepository repository : repositories) {
+                synchronized (repository) {
+                    // A zero last refresh lets the repository clone/pull once, here
+                    repository.setLastRefresh(0);
+                    repository.refresh(repository.getDefaultLabel());
+                    repository.setLastRefresh(System.currentTimeMillis());
+                }
+            }
+            warmedUp = true;
+            lastError = null;
+            publishHeads();
+            logger.info("Git mirror warm-up completed");
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            logger.error("Git mirror warm-up failed, will retry in background: {}", e.getMessage());
+        }
+    }
+
+    private void fetchAll() {
+        if (!warmedUp) {
+            warmUp();
+            return;
+        }
+        for (JGitEnvironmentRepository repository : repositories) {
+            try {
+                fetch(repository);
+                lastError = null;
+            } catch (Exception e) {
+                lastError = e.getMessage();
+                logger.warn("Background fetch failed for {}: {}", repository.getUri(), e.getMessage());
+            }
+        }
+        lastFetch = Instant.now();
+        publishHeads();
+    }
+
+    private void fetch(JGitEnvironmentRepository repository) throws Exception {
+        File basedir = repository.getBasedir();
+        if (!new File(basedir, ".git").exists()) {
+            synchronized (repository) {
+                repository.setLastRefresh(0);
+                repository.refresh(repository.getDefaultLabel());
+                repository.setLastRefresh(System.currentTimeMillis());
+            }
+            return;
+        }
+
+        try (Git git = Git.open(basedir)) {
+            // Network I/O, outside the repository lock
+            FetchCommand fetch = git.fetch()
+                .setRemote(REMOTE)
+                .setRemoveDeletedRefs(true)
+                .setTimeout(repository.getTimeout());
+            if (repository.getUsername() != null) {
+                fetch.setCredentialsProvider(
+                    new UsernamePasswordCredentialsProvider(repository.getUsername(), repository.getPassword()));
+            }
+            if (repository.getTransportConfigCallback() != null) {
+                fetch.setTransportConfigCallback(repository.getTransportConfigCallback());
+            }
+            FetchResult result = fetch.call();
+
+            synchronized (repository) {
+                if (!result.getTrackingRefUpdates().isEmpty()) {
+                    advanceLocalBranches(git);
+                }
+                repository.setLastRefresh(System.currentTimeMillis());
+            }
+        }
+    }
+
+    private void advanceLocalBranches(Git git) throws Exception {
+        Repository repo = git.getRepository();
+        String current = repo.getBranch();
+        for (Ref local : git.branchList().call()) {
+            String branch = Repository.shortenRefName(local.getName());
+            Ref remote = repo.exactRef(Constants.R_REMOTES + REMOTE + "/" + branch);
+            if (remote == null || remote.getObjectId().equals(local.getObjectId())) {
+                continue;
+            }
+            if (branch.equals(current)) {
+                git.reset().setMode(ResetCommand.ResetType.HARD).setRef(remote.getName()).call();
+            } else {
+                RefUpdate update = repo.updateRef(local.getName());
+                update.setNewObjectId(remote.getObjectId());
+                update.setForceUpdate(true);
+                update.update();
+            }
+            logger.info("Published {} -> {}", branch, remote.getObjectId().abbreviate(7).name());
+        }
+    }
+
+    private void publishHeads() {
+        Map<String, String> published = new HashMap<>();
+        for (JGitEnvironmentRepository repository : repositories) {
+            File basedir = repository.getBasedir();
+            if (!new File(basedir, ".git").exists()) {
+                continue;
+            }
+            try (Git git = Git.open(basedir)) {
+                for (Ref local : git.branchList().call()) {
+                    ObjectId id = local.getObjectId();
+                    published.put(repository.getUri() + "#" + Repository.shortenRefName(local.getName()), id.name());
+                }
+            } catch (Exception e) {
+                logger.debug("Could not read heads of {}: {}", repository.getUri(), e.getMessage());
+            }
+        }
+        heads = Map.copyOf(published);
+    }
+
+    private List<JGitEnvironmentRepository> findRepositories() {
+        List<JGitEnvironmentRepository> found = new ArrayList<>();
+        for (EnvironmentRepository bean : applicationContext.getBeansOfType(EnvironmentRepository.class).values()) {
+            EnvironmentRepository repository = bean;
+            if (repository instanceof CachingEnvironmentRepository) {
+                repository = ((CachingEnvironmentRepository) repository).getDelegate();
+            }
+            if (repository instanceof WorktreeEnvironmentRepository) {
+                repository = ((WorktreeEnvironmentRepository) repository).getDelegate();
+            }
+            if (repository instanceof JGitEnvironmentRepository && !found.contains(repository)) {
+                found.add((JGitEnvironmentRepository) repository);
+            }
+            if (repository instanceof MultipleJGitEnvironmentRepository) {
+                ((MultipleJGitEnvironmentRepository) repository).getRepos().values().forEach(found::add);
+            }
+        }
+        return found;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Subset of properties a client asked for with {@code ?keys=} and
+ * {@code ?prefix=}. A prefix selects a whole subtree: {@code prefix=spring.datasource}
+ * matches {@code spring.datasource} itself and every key below it
+ * ({@code spring.datasource.url}, {@code spring.datasource[0]}, ...).
+ */
+public final class KeyProjection {
+
+    public static final KeyProjection ALL = new KeyProjection(Set.of(), Set.of());
+
+    private final Set<String> keys;
+    private final Set<String> prefixes;
+
+    private KeyProjection(Set<String> keys, Set<String> prefixes) {
+        this.keys = keys;
+        this.prefixes = prefixes;
+    }
+
+    /**
+     * Projection for the request parameters; {@link #ALL} when neither is given.
+     */
+    public static KeyProjection of(Collection<String> keys, Collection<String> prefixes) {
+        Set<String> keySet = normalize(keys);
+        Set<String> prefixSet = normalize(prefixes);
+        if (keySet.isEmpty() && prefixSet.isEmpty()) {
+            return ALL;
+        }
+        return new KeyProjection(keySet, prefixSet);
+    }
+
+    public boolean isAll() {
+        return keys.isEmpty() && prefixes.isEmpty();
+    }
+
+    public boolean matches(String key) {
+        if (isAll() || keys.contains(key)) {
+            return true;
+        }
+        for (String prefix : prefixes) {
+            if (key.startsWith(prefix) && (key.length() == prefix.length()
+                    || key.charAt(prefix.length()) == '.' || key.charAt(prefix.length()) == '[')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Selects the matching entries from a key-sorted index with one range lookup
+     * per prefix, rather than testing every key.
+     */
+    public Map<String, Object> apply(NavigableMap<String, Object> index) {
+        Map<String, Object> selected = new TreeMap<>();
+        for (String key : keys) {
+            if (index.containsKey(key)) {
+                selected.put(key, index.get(key));
+            }
+        }
+        for (String prefix : prefixes) {
+            if (index.containsKey(prefix)) {
+                selected.put(prefix, index.get(prefix));
+            }
+            // Keys below the prefix: [prefix., prefix/) and [prefix[, prefix\)
+            selected.putAll(index.subMap(prefix + ".", true, prefix + "/", false));
+            selected.putAll(index.subMap(prefix + "[", true, prefix + "\\", false));
+        }
+        return selected;
+    }
+
+    /**
+     * Stable identity for caching projected responses.
+     */
+    public String getCacheKey() {
+        return "keys=" + keys + ";prefix=" + prefixes;
+    }
+
+    private static Set<String> normalize(Collection<String> values) {
+        if (values == null) {
+            return Set.of();
+        }
+        Set<String> normalized = new TreeSet<>();
+        for (String value : values) {
+            for (String part : value.split(",")) {
+                if (!part.isBlank()) {
+                    normalized.add(part.trim());
+                }
+            }
+        }
+        return normalized;
+    }
+
+    @Override
+    public String toString() {
+        return getCacheKey();
+    }
+}
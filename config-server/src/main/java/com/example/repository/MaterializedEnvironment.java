@@ -0,0 +1,86 @@
+package com.example.repository;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flattened view of an {@code Environment}: one property map with precedence
+ * already resolved (the first property source that defines a key wins), built
+ * once per commit and shared read-only by every request for it.
+ */
+public final class MaterializedEnvironment {
+
+    private static final int MAX_PROJECTIONS = 64;
+
+    private final String application;
+    private final String profile;
+    private final String label;
+    private final String version;
+    private final Map<String, Object> properties;
+    private final NavigableMap<String, Object> index;
+    private final Map<String, Map<String, Object>> projections = new ConcurrentHashMap<>();
+    private final Instant materializedAt;
+
+    MaterializedEnvironment(String application, String profile, String label, String version,
+                            Map<String, Object> properties) {
+        this.application = application;
+        this.profile = profile;
+        this.label = label;
+        this.version = version;
+        this.properties = Collections.unmodifiableMap(new LinkedHashMap<>(properties));
+        this.index = Collections.unmodifiableNavigableMap(new TreeMap<>(properties));
+        this.materializedAt = Instant.now();
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Commit the properties were read from, or {@code null} when the backend
+     * does not report one.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    /**
+     * The properties selected by the projection, resolved against a key-sorted
+     * index. Results are kept per projection, since a service asks for the same
+     * subset on every fetch.
+     */
+    public Map<String, Object> project(KeyProjection projection) {
+        if (projection.isAll()) {
+            return properties;
+        }
+        Map<String, Object> projected = projections.get(projection.getCacheKey());
+        if (projected == null) {
+            projected = Collections.unmodifiableMap(projection.apply(index));
+            if (projections.size() < MAX_PROJECTIONS) {
+                projections.put(projection.getCacheKey(), projected);
+            }
+        }
+        return projected;
+    }
+
+    public Instant getMaterializedAt() {
+        return materializedAt;
+    }
+}
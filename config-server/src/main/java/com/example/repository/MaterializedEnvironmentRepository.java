@@ -0,0 +1,225 @@
+package com.example.repository;
+
+import com.example.metrics.BackendCalls;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.environment.CompositeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Serves {@link MaterializedEnvironment}s: the merged property map of an
+ * (application, profile, label) is built once per commit and then handed out
+ * as-is until the label moves.
+ * <p>
+ * The current commit is looked up through the Git repository's
+ * {@link SearchPathLocator}, which is cheap when the worktree or caching
+ * repositories sit in front of it. Backends that do not report a commit are
+ * merged on every call, as before.
+ */
+@Component
+public class MaterializedEnvironmentRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaterializedEnvironmentRepository.class);
+
+    @Autowired
+    private EnvironmentRepository environmentRepository;
+
+    @Autowired
+    private ObjectProvider<SearchPathLocator> searchPathLocators;
+
+    @Autowired
+    private BackendCalls backendCalls;
+
+    @Value("${config.materialized-environment.max-entries:1024}")
+    private int maxEntries;
+
+    @Value("${config.materialized-environment.history-size:8}")
+    private int historySize;
+
+    private BoundedLruMap<Key, Entry> cache;
+    private final SingleFlight<Key, MaterializedEnvironment> loads = new SingleFlight<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile SearchPathLocator locator;
+    private volatile boolean locatorResolved = false;
+
+    @PostConstruct
+    public void init() {
+        cache = new BoundedLruMap<>(maxEntries);
+    }
+
+    public MaterializedEnvironment findOne(String application, String profile, String label) {
+        Key key = new Key(application, profile, label);
+        String commit = resolveVersion(application, profile, label);
+
+        Entry entry = cache.get(key);
+        if (commit != null && entry != null && commit.equals(entry.environment.getVersion())) {
+            hits.incrementAndGet();
+            return entry.environment;
+        }
+
+        misses.incrementAndGet();
+        // Concurrent misses for the same key share one read of the repository
+        return loads.execute(key, () -> load(key, commit));
+    }
+
+    private MaterializedEnvironment load(Key key, String commit) {
+        Entry entry = cache.get(key);
+        if (commit != null && entry != null && commit.equals(entry.environment.getVersion())) {
+            return entry.environment;
+        }
+
+        Environment environment = backendCalls.record("environment-repository", "findOne",
+            () -> environmentRepository.findOne(key.application, key.profile, key.label));
+        MaterializedEnvironment materialized = materialize(key.application, key.profile, key.label, environment);
+        if (materialized.getVersion() != null) {
+            cache.put(key, new Entry(materialized, entry, historySize));
+            logger.debug("Materialized {}/{}/{} at {} ({} properties)", key.application, key.profile, key.label,
+                materialized.getVersion(), materialized.getProperties().size());
+        }
+        return materialized;
+    }
+
+    /**
+     * An earlier materialization of the (application, profile, label), if it is
+     * still in the bounded history, or the current one when the version matches.
+     */
+    public MaterializedEnvironment findVersion(String application, String profile, String label, String version) {
+        Entry entry = cache.get(new Key(application, profile, label));
+        if (entry == null || version == null) {
+            return null;
+        }
+        if (version.equals(entry.environment.getVersion())) {
+            return entry.environment;
+        }
+        return entry.history.get(version);
+    }
+
+    /**
+     * Flattens the property sources of an environment. Sources are ordered from
+     * highest to lowest precedence, so the first one that defines a key wins.
+     */
+    static MaterializedEnvironment materialize(String application, String profile, String label,
+                                               Environment environment) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (PropertySource source : environment.getPropertySources()) {
+            source.getSource().forEach((name, value) -> properties.putIfAbsent(String.valueOf(name), value));
+        }
+        return new MaterializedEnvironment(application, profile, label, environment.getVersion(), properties);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", cache.size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", cache.getEvictions());
+        stats.put("coalescedLoads", loads.getShared());
+        return stats;
+    }
+
+    /**
+     * Commit the label currently resolves to, without reading any files, or
+     * {@code null} when it cannot be resolved up front.
+     */
+    public String resolveVersion(String application, String profile, String label) {
+        SearchPathLocator searchPathLocator = locator();
+        if (searchPathLocator == null) {
+            return null;
+        }
+        try {
+            return searchPathLocator.getLocations(application, profile, label).getVersion();
+        } catch (Exception e) {
+            logger.debug("Could not resolve commit for {}/{}/{}: {}", application, profile, label, e.getMessage());
+            return null;
+        }
+    }
+
+    // The composite repository reports no version, so the commit can only be
+    // resolved when exactly one Git repository backs the server.
+    private SearchPathLocator locator() {
+        if (!locatorResolved) {
+            List<SearchPathLocator> candidates = searchPathLocators.orderedStream()
+                .filter(candidate -> !(candidate instanceof CompositeEnvironmentRepository))
+                .collect(Collectors.toList());
+            locator = candidates.size() == 1 ? candidates.get(0) : null;
+            locatorResolved = true;
+            if (locator == null) {
+                logger.info("{} search path locators found, environments are merged per request", candidates.size());
+            }
+        }
+        return locator;
+    }
+
+    private static final class Key {
+        private final String application;
+        private final String profile;
+        private final String label;
+
+        Key(String application, String profile, String label) {
+            this.application = application;
+            this.profile = profile;
+            this.label = label;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return Objects.equals(application, that.application) &&
+                   Objects.equals(profile, that.profile) &&
+                   Objects.equals(label, that.label);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(application, profile, label);
+        }
+    }
+
+    private static final class Entry {
+        private final MaterializedEnvironment environment;
+        // Earlier versions, oldest first, for delta requests
+        private final Map<String, MaterializedEnvironment> history;
+
+        Entry(MaterializedEnvironment environment, Entry previous, int historySize) {
+            this.environment = environment;
+            Map<String, MaterializedEnvironment> versions = new LinkedHashMap<>();
+            if (previous != null && historySize > 0) {
+                versions.putAll(previous.history);
+                versions.remove(previous.environment.getVersion());
+                versions.put(previous.environment.getVersion(), previous.environment);
+                versions.remove(environment.getVersion());
+                Iterator<String> oldest = versions.keySet().iterator();
+                while (versions.size() > historySize) {
+                    oldest.next();
+                    oldest.remove();
+                }
+            }
+            this.history = Collections.unmodifiableMap(versions);
+        }
+    }
+}
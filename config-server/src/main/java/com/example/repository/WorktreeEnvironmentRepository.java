@@ -0,0 +1,319 @@
+package com.example.repository;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentCleaner;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.JGitEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentProperties;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.core.Ordered;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves a JGit environment repository without checking labels out in its shared
+ * working copy.
+ * <p>
+ * Each label is resolved to a commit straight from the local clone's refs, and the
+ * commit's tree is extracted once into a directory of its own. Requests for
+ * different labels (or for the same label) then parse from those directories in
+ * parallel, with no repository-wide lock. The least recently used labels beyond
+ * the configured limit are evicted, and their directories are deleted after a
+ * grace period so in-flight reads can finish. A directory is never handed out
+ * again once its worktree has been replaced or evicted, so deleting it cannot
+ * race with a new request.
+ * <p>
+ * Anything this class cannot serve (no local clone yet, unknown label, wildcard
+ * search paths) falls back to the wrapped repository.
+ */
+public class WorktreeEnvironmentRepository implements EnvironmentRepository, SearchPathLocator, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorktreeEnvironmentRepository.class);
+
+    private static final long RETIRE_GRACE_SECONDS = 60;
+
+    // Striped, so the locks stay bounded however many labels are requested
+    private static final int LABEL_LOCK_STRIPES = 64;
+
+    private final JGitEnvironmentRepository delegate;
+    private final Path worktreeRoot;
+    private final BoundedLruMap<String, Worktree> worktrees;
+    private final ReentrantLock[] labelLocks = new ReentrantLock[LABEL_LOCK_STRIPES];
+    private final ScheduledExecutorService retireExecutor;
+    private final EnvironmentCleaner cleaner = new EnvironmentCleaner();
+
+    private volatile Repository repository;
+
+    public WorktreeEnvironmentRepository(JGitEnvironmentRepository delegate, int maxLabels) {
+        this.delegate = delegate;
+        File basedir = delegate.getBasedir();
+        this.worktreeRoot = basedir.toPath().resolveSibling(basedir.getName() + "-worktrees");
+        for (int i = 0; i < labelLocks.length; i++) {
+            labelLocks[i] = new ReentrantLock();
+        }
+        // Left over from an earlier run; nothing refers to them any more
+        try {
+            FileSystemUtils.deleteRecursively(worktreeRoot);
+        } catch (IOException e) {
+            logger.warn("Could not clear {}: {}", worktreeRoot, e.getMessage());
+        }
+        this.retireExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "worktree-retire");
+            t.setDaemon(true);
+            return t;
+        });
+        this.worktrees = new BoundedLruMap<>(maxLabels, (label, evicted) -> {
+            logger.debug("Evicting idle label {}", label);
+            retire(evicted);
+        });
+    }
+
+    public EnvironmentRepository getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        String resolvedLabel = resolveLabel(label);
+        Worktree worktree = worktreeFor(resolvedLabel);
+        String[] searchLocations = worktree != null ? searchLocations(worktree.dir, application, profile, resolvedLabel) : null;
+        if (searchLocations == null) {
+            return delegate.findOne(application, profile, label, includeOrigin);
+        }
+
+        NativeEnvironmentRepository nativeRepository = new NativeEnvironmentRepository(
+            delegate.getEnvironment(), new NativeEnvironmentProperties(), ObservationRegistry.NOOP);
+        nativeRepository.setSearchLocations(searchLocations);
+        Environment result = nativeRepository.findOne(application, profile, "", includeOrigin);
+        result.setVersion(worktree.commit);
+        result.setLabel(resolvedLabel);
+        // File#toURI, like the JGit repository: file:/... with a trailing slash, as in the source names
+        return cleaner.clean(result, worktree.dir.toFile().toURI().toString(), delegate.getUri());
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        String resolvedLabel = resolveLabel(label);
+        Worktree worktree = worktreeFor(resolvedLabel);
+        String[] searchLocations = worktree != null ? searchLocations(worktree.dir, application, profile, resolvedLabel) : null;
+        if (searchLocations == null) {
+            return delegate.getLocations(application, profile, label);
+        }
+        return new Locations(application, profile, resolvedLabel, worktree.commit, searchLocations);
+    }
+
+    @Override
+    public int getOrder() {
+        return delegate.getOrder();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        worktrees.snapshot().forEach((label, worktree) -> status.put(label, worktree.commit));
+        return status;
+    }
+
+    private String resolveLabel(String label) {
+        return StringUtils.hasText(label) ? label : delegate.getDefaultLabel();
+    }
+
+    /**
+     * Current worktree for the label, extracting the commit's tree first if the
+     * label moved. Returns {@code null} when the label cannot be resolved locally.
+     */
+    private Worktree worktreeFor(String label) {
+        ObjectId commit = resolveCommit(label);
+        if (commit == null) {
+            return null;
+        }
+        String commitId = commit.name();
+
+        Worktree current = worktrees.get(label);
+        if (current != null && current.commit.equals(commitId)) {
+            return current;
+        }
+
+        // Only requests for this label wait while its tree is extracted. A lock
+        // rather than synchronized, so virtual threads do not pin during the I/O.
+        ReentrantLock lock = labelLocks[Math.floorMod(label.hashCode(), labelLocks.length)];
+        lock.lock();
+        try {
+            current = worktrees.get(label);
+            if (current != null && current.commit.equals(commitId)) {
+                return current;
+            }
+            try {
+                Worktree created = new Worktree(commitId, extract(label, commit));
+                Worktree previous = worktrees.put(label, created);
+                if (previous != null) {
+                    retire(previous);
+                }
+                return created;
+            } catch (IOException e) {
+                logger.warn("Could not extract {} ({}): {}", label, commitId, e.getMessage());
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ObjectId resolveCommit(String label) {
+        Repository repo = openRepository();
+        if (repo == null) {
+            return null;
+        }
+        try {
+            for (String candidate : new String[] {
+                    Constants.R_REMOTES + Constants.DEFAULT_REMOTE_NAME + "/" + label,
+                    Constants.R_HEADS + label,
+                    Constants.R_TAGS + label}) {
+                Ref ref = repo.exactRef(candidate);
+                if (ref != null) {
+                    Ref peeled = repo.getRefDatabase().peel(ref);
+                    return peeled.getPeeledObjectId() != null ? peeled.getPeeledObjectId() : ref.getObjectId();
+                }
+            }
+            if (ObjectId.isId(label)) {
+                return ObjectId.fromString(label);
+            }
+            return null;
+        } catch (IOException e) {
+            logger.debug("Could not resolve label {}: {}", label, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Extracts the commit's tree into a new directory. Directories are not shared
+     * between worktrees, even for the same commit, so a retired one can be deleted
+     * without checking who else uses it.
+     */
+    private Path extract(String label, ObjectId commitId) throws IOException {
+        Files.createDirectories(worktreeRoot);
+        Path target = Files.createTempDirectory(worktreeRoot, commitId.name() + ".");
+
+        Repository repo = openRepository();
+        try (RevWalk walk = new RevWalk(repo); TreeWalk treeWalk = new TreeWalk(repo)) {
+            RevCommit commit = walk.parseCommit(commitId);
+            treeWalk.addTree(commit.getTree());
+            treeWalk.setRecursive(true);
+            while (treeWalk.next()) {
+                if (treeWalk.getFileMode(0) != FileMode.REGULAR_FILE
+                        && treeWalk.getFileMode(0) != FileMode.EXECUTABLE_FILE) {
+                    continue;
+                }
+                Path file = target.resolve(treeWalk.getPathString());
+                Files.createDirectories(file.getParent());
+                try (OutputStream out = Files.newOutputStream(file)) {
+                    repo.open(treeWalk.getObjectId(0)).copyTo(out);
+                }
+            }
+        } catch (IOException e) {
+            FileSystemUtils.deleteRecursively(target);
+            throw e;
+        }
+        logger.info("Extracted label {} at {} into {}", label, commitId.abbreviate(7).name(), target);
+        return target;
+    }
+
+    private String[] searchLocations(Path dir, String application, String profile, String label) {
+        List<String> locations = new ArrayList<>();
+        locations.add(dir.toUri().toString());
+        String[] searchPaths = delegate.getSearchPaths() != null ? delegate.getSearchPaths() : new String[0];
+        for (String searchPath : searchPaths) {
+            if (searchPath.contains("*")) {
+                return null;
+            }
+            for (String app : StringUtils.commaDelimitedListToStringArray(application)) {
+                for (String prof : StringUtils.commaDelimitedListToStringArray(profile)) {
+                    String path = searchPath.replace("{application}", app)
+                        .replace("{profile}", prof)
+                        .replace("{label}", label);
+                    String location = dir.resolve(path).toUri().toString();
+                    if (!locations.contains(location)) {
+                        locations.add(location);
+                    }
+                }
+            }
+        }
+        return locations.toArray(new String[0]);
+    }
+
+    private void retire(Worktree worktree) {
+        retireExecutor.schedule(() -> FileSystemUtils.deleteRecursively(worktree.dir.toFile()),
+            RETIRE_GRACE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private Repository openRepository() {
+        Repository repo = repository;
+        if (repo != null) {
+            return repo;
+        }
+        File gitDir = new File(delegate.getBasedir(), Constants.DOT_GIT);
+        if (!gitDir.isDirectory()) {
+            return null;
+        }
+        synchronized (this) {
+            if (repository == null) {
+                try {
+                    repository = new FileRepositoryBuilder().setGitDir(gitDir).setMustExist(true).build();
+                } catch (IOException e) {
+                    logger.debug("Could not open {}: {}", gitDir, e.getMessage());
+                    return null;
+                }
+            }
+            return repository;
+        }
+    }
+
+    public void shutdown() {
+        retireExecutor.shutdownNow();
+        Repository repo = repository;
+        if (repo != null) {
+            repo.close();
+        }
+    }
+
+    private static final class Worktree {
+        private final String commit;
+        private final Path dir;
+
+        Worktree(String commit, Path dir) {
+            this.commit = commit;
+            this.dir = dir;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedLruMapTest {
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        List<String> evicted = new ArrayList<>();
+        BoundedLruMap<String, Integer> map = new BoundedLruMap<>(2, (key, value) -> evicted.add(key));
+
+        map.put("a", 1);
+        map.put("b", 2);
+        map.get("a");
+        map.put("c", 3);
+
+        assertThat(evicted).containsExactly("b");
+        assertThat(map.snapshot()).containsOnlyKeys("a", "c");
+        assertThat(map.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void replacingAnEntryIsNotAnEviction() {
+        List<String> evicted = new ArrayList<>();
+        BoundedLruMap<String, Integer> map = new BoundedLruMap<>(1, (key, value) -> evicted.add(key));
+
+        map.put("a", 1);
+        assertThat(map.put("a", 2)).isEqualTo(1);
+
+        assertThat(evicted).isEmpty();
+        assertThat(map.get("a")).isEqualTo(2);
+        assertThat(map.getEvictions()).isZero();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.repository;
+
+import com.example.metrics.BackendCalls;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.transport.RefSpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.JGitEnvironmentProperties;
+import org.springframework.cloud.config.server.environment.JGitEnvironmentRepository;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the cache over a real {@link JGitEnvironmentRepository} that clones a
+ * bare repository on the local file system, so label resolution and commit ids
+ * come from Git itself.
+ */
+class CachingEnvironmentRepositoryTest {
+
+    private Path root;
+    private Git work;
+    private File origin;
+    private CachingEnvironmentRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        root = Files.createTempDirectory("environment-cache");
+        origin = root.resolve("origin.git").toFile();
+        Git.init().setBare(true).setInitialBranch("main").setDirectory(origin).call().close();
+        work = Git.init().setInitialBranch("main").setDirectory(root.resolve("work").toFile()).call();
+        commit("main", "greeting: hello\n");
+
+        JGitEnvironmentProperties properties = new JGitEnvironmentProperties();
+        // A plain path rather than file:, which would be read in place instead of cloned
+        properties.setUri(origin.getAbsolutePath());
+        properties.setBasedir(root.resolve("clone").toFile());
+        properties.setDefaultLabel("main");
+        JGitEnvironmentRepository git = new JGitEnvironmentRepository(new StandardEnvironment(), properties,
+            ObservationRegistry.NOOP);
+        repository = new CachingEnvironmentRepository(git, 16, new BackendCalls(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        work.close();
+        FileSystemUtils.deleteRecursively(root);
+    }
+
+    @Test
+    void servesTheSameCommitFromTheCache() {
+        Environment first = repository.findOne("myapp", "default", "main");
+        Environment second = repository.findOne("myapp", "default", "main");
+
+        assertThat(second.getVersion()).isEqualTo(first.getVersion());
+        assertThat(greeting(second)).isEqualTo("hello");
+        assertThat(repository.getStats()).containsEntry("misses", 1L).containsEntry("hits", 1L);
+    }
+
+    @Test
+    void handsOutCopiesOfTheCachedEnvironment() {
+        Environment first = repository.findOne("myapp", "default", "main");
+        @SuppressWarnings("unchecked")
+        Map<Object, Object> source = (Map<Object, Object>) first.getPropertySources().get(0).getSource();
+        source.put("greeting", "changed by caller");
+
+        assertThat(greeting(repository.findOne("myapp", "default", "main"))).isEqualTo("hello");
+    }
+
+    @Test
+    void reloadsWhenTheLabelMovesToANewCommit() throws Exception {
+        Environment before = repository.findOne("myapp", "default", "main");
+
+        commit("main", "greeting: hi there\n");
+        Environment after = repository.findOne("myapp", "default", "main");
+
+        assertThat(after.getVersion()).isNotEqualTo(before.getVersion());
+        assertThat(greeting(after)).isEqualTo("hi there");
+        assertThat(repository.getStats()).containsEntry("misses", 2L).containsEntry("hits", 0L);
+    }
+
+    @Test
+    void keepsLabelsApart() throws Exception {
+        work.branchCreate().setName("feature").call();
+        commit("feature", "greeting: from feature\n");
+
+        assertThat(greeting(repository.findOne("myapp", "default", "main"))).isEqualTo("hello");
+        assertThat(greeting(repository.findOne("myapp", "default", "feature"))).isEqualTo("from feature");
+
+        // A new commit on one label leaves the other one cached
+        commit("feature", "greeting: feature again\n");
+        assertThat(greeting(repository.findOne("myapp", "default", "feature"))).isEqualTo("feature again");
+        assertThat(greeting(repository.findOne("myapp", "default", "main"))).isEqualTo("hello");
+        assertThat(repository.getStats()).containsEntry("misses", 3L).containsEntry("hits", 1L);
+    }
+
+    private void commit(String branch, String content) throws Exception {
+        if (!branch.equals(work.getRepository().getBranch())) {
+            work.checkout().setName(branch).call();
+        }
+        Files.writeString(work.getRepository().getWorkTree().toPath().resolve("myapp.yml"), content);
+        work.add().addFilepattern("myapp.yml").call();
+        work.commit().setMessage("Update " + branch).setSign(false).call();
+        work.push().setRemote(origin.toURI().toString())
+            .setRefSpecs(new RefSpec("refs/heads/" + branch + ":refs/heads/" + branch)).call();
+    }
+
+    private static Object greeting(Environment environment) {
+        return environment.getPropertySources().get(0).getSource().get("greeting");
+    }
+}
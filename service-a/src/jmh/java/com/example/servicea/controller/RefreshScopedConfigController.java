@@ -0,0 +1,32 @@
+package com.example.servicea.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.config.annotation.RefreshScope;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code @RefreshScope} version of {@link ConfigController#getConfig()},
+ * kept as the baseline for {@link RefreshThroughputBenchmark}.
+ */
+@RefreshScope
+public class RefreshScopedConfigController {
+
+    @Value("${app.name:FALLBACK-APP-NAME}")
+    private String appName;
+
+    @Value("${app.version:0.0.0}")
+    private String appVersion;
+
+    @Value("${app.environment:fallback}")
+    private String environment;
+
+    public Map<String, String> getConfig() {
+        Map<String, String> config = new HashMap<>();
+        config.put("name", appName);
+        config.put("version", appVersion);
+        config.put("environment", environment);
+        return config;
+    }
+}
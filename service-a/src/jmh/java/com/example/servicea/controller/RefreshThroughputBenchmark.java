@@ -0,0 +1,112 @@
+package com.example.servicea.controller;
+
+import com.example.servicea.config.SettingsConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code /config} throughput while the environment is refreshed in a tight loop,
+ * for the snapshot-backed {@link ConfigController} against the old
+ * {@code @RefreshScope} controller. Each group runs three request threads and
+ * one refresh thread; the refresh does what {@code ContextRefresher} does once
+ * the new environment is in place (publish the changed keys, then refresh the
+ * scope).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RefreshThroughputBenchmark {
+
+    private static final Set<String> CHANGED_KEYS = Set.of("app.version");
+
+    private final Map<String, Object> properties = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    private AnnotationConfigApplicationContext context;
+    private RefreshScope refreshScope;
+    private ConfigController snapshotController;
+    private RefreshScopedConfigController scopedController;
+
+    @Setup
+    public void setUp() {
+        properties.put("app.name", "bench");
+        properties.put("app.version", "0");
+        properties.put("app.environment", "bench");
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("bench", properties));
+
+        context = new AnnotationConfigApplicationContext();
+        context.setEnvironment(environment);
+        context.registerBean("refreshScope", RefreshScope.class);
+        context.register(SettingsConfig.class, ConfigController.class, RefreshScopedConfigController.class);
+        context.refresh();
+
+        refreshScope = context.getBean(RefreshScope.class);
+        snapshotController = context.getBean(ConfigController.class);
+        scopedController = context.getBean(RefreshScopedConfigController.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(3)
+    public Map<String, String> snapshotRequest() {
+        return snapshotController.getConfig();
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(1)
+    public void snapshotRefresh() {
+        refresh();
+    }
+
+    @Benchmark
+    @Group("refreshScope")
+    @GroupThreads(3)
+    public Map<String, String> refreshScopeRequest() {
+        return scopedController.getConfig();
+    }
+
+    @Benchmark
+    @Group("refreshScope")
+    @GroupThreads(1)
+    public void refreshScopeRefresh() {
+        refresh();
+    }
+
+    private void refresh() {
+        properties.put("app.version", Long.toString(versions.incrementAndGet()));
+        context.publishEvent(new EnvironmentChangeEvent(context, CHANGED_KEYS));
+        refreshScope.refreshAll();
+    }
+}
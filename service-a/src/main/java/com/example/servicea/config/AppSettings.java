@@ -0,0 +1,47 @@
+package com.example.servicea.config;
+
+import org.springframework.core.env.Environment;
+
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the {@code app.*} settings served by {@code /config}.
+ */
+public final class AppSettings {
+
+    static final Set<String> PREFIXES = Set.of("app.");
+
+    private final String name;
+    private final String version;
+    private final String environment;
+
+    AppSettings(String name, String version, String environment) {
+        this.name = name;
+        this.version = version;
+        this.environment = environment;
+    }
+
+    static AppSettings bind(Environment env) {
+        return new AppSettings(
+            env.getProperty("app.name", "FALLBACK-APP-NAME"),
+            env.getProperty("app.version", "0.0.0"),
+            env.getProperty("app.environment", "fallback"));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getEnvironment() {
+        return environment;
+    }
+
+    @Override
+    public String toString() {
+        return "AppSettings{name=" + name + ", version=" + version + ", environment=" + environment + "}";
+    }
+}
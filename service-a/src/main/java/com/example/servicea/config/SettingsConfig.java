@@ -0,0 +1,15 @@
+package com.example.servicea.config;
+
+import com.example.configrefresh.ConfigSnapshotHolder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class SettingsConfig {
+
+    @Bean
+    public ConfigSnapshotHolder<AppSettings> appSettings(Environment environment) {
+        return new ConfigSnapshotHolder<>(environment, AppSettings.PREFIXES, AppSettings::bind);
+    }
+}
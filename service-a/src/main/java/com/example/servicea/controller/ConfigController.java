@@ -1,7 +1,8 @@
 package com.example.servicea.controller;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cloud.context.config.annotation.RefreshScope;
+import com.example.servicea.config.AppSettings;
+import com.example.configrefresh.ConfigSnapshotHolder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -9,25 +10,19 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestController
-@RefreshScope
 public class ConfigController {
 
-    // GitHub Configuration Values
-    @Value("${app.name:FALLBACK-APP-NAME}")
-    private String appName;
-
-    @Value("${app.version:0.0.0}")
-    private String appVersion;
-
-    @Value("${app.environment:fallback}")
-    private String environment;
+    // GitHub Configuration Values, rebound on refresh
+    @Autowired
+    private ConfigSnapshotHolder<AppSettings> appSettings;
     
     @GetMapping("/config")
     public Map<String, String> getConfig() {
+        AppSettings settings = appSettings.get();
         Map<String, String> config = new HashMap<>();
-        config.put("name", appName);
-        config.put("version", appVersion);
-        config.put("environment", environment);
+        config.put("name", settings.getName());
+        config.put("version", settings.getVersion());
+        config.put("environment", settings.getEnvironment());
         //config.put("isFromGitHub", !appName.equals("FALLBACK-APP-NAME"));
         return config;
     }
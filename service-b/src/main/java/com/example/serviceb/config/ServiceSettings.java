@@ -0,0 +1,56 @@
+package com.example.serviceb.config;
+
+import org.springframework.core.env.Environment;
+
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the {@code service.*} and {@code api.*} settings served
+ * by {@code /config}.
+ */
+public final class ServiceSettings {
+
+    static final Set<String> PREFIXES = Set.of("service.", "api.");
+
+    private final String message;
+    private final String secret;
+    private final String apiKey;
+    private final String apiEndpoint;
+
+    ServiceSettings(String message, String secret, String apiKey, String apiEndpoint) {
+        this.message = message;
+        this.secret = secret;
+        this.apiKey = apiKey;
+        this.apiEndpoint = apiEndpoint;
+    }
+
+    static ServiceSettings bind(Environment env) {
+        return new ServiceSettings(
+            env.getProperty("service.message", "Default message"),
+            env.getProperty("service.secret", "No secret"),
+            env.getProperty("api.key", "No API key"),
+            env.getProperty("api.endpoint", "No endpoint"));
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    public String getApiEndpoint() {
+        return apiEndpoint;
+    }
+
+    // Secrets stay out of the log output of rebinds
+    @Override
+    public String toString() {
+        return "ServiceSettings{message=" + message + ", apiEndpoint=" + apiEndpoint + "}";
+    }
+}
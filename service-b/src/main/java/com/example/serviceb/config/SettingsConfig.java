@@ -0,0 +1,15 @@
+package com.example.serviceb.config;
+
+import com.example.configrefresh.ConfigSnapshotHolder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class SettingsConfig {
+
+    @Bean
+    public ConfigSnapshotHolder<ServiceSettings> serviceSettings(Environment environment) {
+        return new ConfigSnapshotHolder<>(environment, ServiceSettings.PREFIXES, ServiceSettings::bind);
+    }
+}
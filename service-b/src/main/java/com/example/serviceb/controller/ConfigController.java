@@ -1,7 +1,8 @@
 package com.example.serviceb.controller;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cloud.context.config.annotation.RefreshScope;
+import com.example.configrefresh.ConfigSnapshotHolder;
+import com.example.serviceb.config.ServiceSettings;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -9,29 +10,21 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestController
-@RefreshScope
 public class ConfigController {
     
-    @Value("${service.message:Default message}")
-    private String message;
-    
-    @Value("${service.secret:No secret}")
-    private String secret;
-    
-    @Value("${api.key:No API key}")
-    private String apiKey;
-    
-    @Value("${api.endpoint:No endpoint}")
-    private String apiEndpoint;
+    // Rebound on refresh
+    @Autowired
+    private ConfigSnapshotHolder<ServiceSettings> serviceSettings;
     
     @GetMapping("/config")
     public Map<String, String> getConfig() {
+        ServiceSettings settings = serviceSettings.get();
         Map<String, String> config = new HashMap<>();
         config.put("service", "Service B");
-        config.put("message", message);
-        config.put("secret", secret);
-        config.put("apiKey", apiKey);
-        config.put("apiEndpoint", apiEndpoint);
+        config.put("message", settings.getMessage());
+        config.put("secret", settings.getSecret());
+        config.put("apiKey", settings.getApiKey());
+        config.put("apiEndpoint", settings.getApiEndpoint());
         return config;
     }
     